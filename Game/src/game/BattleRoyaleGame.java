@@ -1,11 +1,73 @@
 package game;
 
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
 // This file contains the main entry point to run the game.
 
 public class BattleRoyaleGame {
     public static void main(String[] args) {
+        // Headless balance run: --headless <matches> [aiPlayers] [mapSize] [--metrics]
+        if (args.length > 0 && args[0].equals("--headless")) {
+            runHeadless(args);
+            return;
+        }
+
+        // Many concurrent matches in one JVM: --host <matches> [aiPlayers] [mapSize] [difficulty]
+        if (args.length > 1 && args[0].equals("--host")) {
+            runHosted(args);
+            return;
+        }
+
+        // Multiplayer server: --serve <port> [humansPerMatch] [aiPlayers] [mapSize]
+        if (args.length > 1 && args[0].equals("--serve")) {
+            serve(args);
+            return;
+        }
+
+        // Join a server: --connect <host> <port> [name]
+        if (args.length > 2 && args[0].equals("--connect")) {
+            connect(args[1], Integer.parseInt(args[2]), args.length > 3 ? args[3] : "Player");
+            return;
+        }
+
+        // Balance sweep: --sweep <matchesPerPoint> <out.csv> [key=v1,v2,...]...
+        if (args.length > 2 && args[0].equals("--sweep")) {
+            runSweep(args);
+            return;
+        }
+
+        // Carry on from a snapshot: --resume <file> (checkpoints keep going to the same file)
+        if (args.length > 1 && args[0].equals("--resume")) {
+            resume(Paths.get(args[1]));
+            return;
+        }
+
+        // Replay a recorded match: --replay <file> [--step]
+        if (args.length > 1 && args[0].equals("--replay")) {
+            replay(Paths.get(args[1]), args.length > 2 && args[2].equals("--step"));
+            return;
+        }
+
         System.out.println("Welcome to Console Battle Royale!");
-        GameEngine engine = new GameEngine();
+        GameEngine engine;
+        if (args.length > 1 && args[0].equals("--record")) {
+            // Record this game: --record <file>
+            long seed = System.nanoTime();
+            engine = new GameEngine(GameOutput.CONSOLE, ReplayRecorder.interactive(GameInput.console(), Paths.get(args[1]), seed), seed);
+        } else {
+            engine = new GameEngine();
+        }
+        // Snapshot after every round: --checkpoint <file>
+        if (args.length > 1 && args[0].equals("--checkpoint")) engine.setCheckpoint(Paths.get(args[1]), 1);
         
         // 1. Setup the game (collect players, assign roles, place on map)
         engine.setupGame(); 
@@ -17,4 +79,158 @@ public class BattleRoyaleGame {
             System.out.println("Not enough players to start the game.");
         }
     }
+
+    private static void replay(Path file, boolean step) {
+        try {
+            ReplayPlayer replay = ReplayPlayer.open(file);
+            Player winner = step ? replay.step(GameOutput.CONSOLE, GameInput.console()) : replay.play();
+            System.out.println("Replay finished. Winner: " + (winner != null ? winner.getName() : "none"));
+        } catch (IOException e) {
+            System.out.println("Could not read replay: " + e.getMessage());
+        }
+    }
+
+    private static void resume(Path file) {
+        GameEngine engine;
+        try {
+            engine = MatchSnapshot.load(file, new GameConfig(), GameOutput.CONSOLE, GameInput.console());
+        } catch (IOException e) {
+            System.out.println("Could not read snapshot: " + e.getMessage());
+            return;
+        }
+        System.out.println("Resuming at round " + engine.getRound() + " with " + engine.getAliveCount() + " players alive.");
+        engine.setCheckpoint(file, 1);
+        engine.startGame();
+    }
+
+    private static void runSweep(String[] args) {
+        SweepRunner sweep = new SweepRunner(new GameConfig(), Integer.parseInt(args[1]));
+        for (int i = 3; i < args.length; i++) {
+            int eq = args[i].indexOf('=');
+            if (eq <= 0) throw new IllegalArgumentException("Expected key=v1,v2,... but got " + args[i]);
+            sweep.vary(args[i].substring(0, eq), args[i].substring(eq + 1).split(","));
+        }
+        long start = System.nanoTime();
+        try (Writer out = Files.newBufferedWriter(Paths.get(args[2]), StandardCharsets.UTF_8)) {
+            int points = sweep.run(out);
+            System.out.printf("%d points x %s matches in %.1fs -> %s\n", points, args[1], (System.nanoTime() - start) / 1e9, args[2]);
+        } catch (IOException e) {
+            System.out.println("Could not write sweep results: " + e.getMessage());
+        }
+    }
+
+    private static void serve(String[] args) {
+        int seats = args.length > 2 ? Integer.parseInt(args[2]) : 2;
+        GameConfig config = new GameConfig()
+            .setNumAI(args.length > 3 ? Integer.parseInt(args[3]) : 6)
+            .setMapSize(args.length > 4 ? Integer.parseInt(args[4]) : GameConfig.DEFAULT_MAP_SIZE);
+        try (MatchHost host = new MatchHost();
+             GameServer server = new GameServer(Integer.parseInt(args[1]), config, seats, host, GameServer.DEFAULT_TURN_TIMEOUT_MILLIS)) {
+            System.out.println("Serving on port " + server.getPort() + ": " + seats + " humans + " + config.getNumAI() + " AI per match. Enter to stop.");
+            GameInput.console().readLine();
+        } catch (IOException e) {
+            System.out.println("Could not start the server: " + e.getMessage());
+        }
+    }
+
+    private static void connect(String host, int port, String name) {
+        GameInput console = GameInput.console();
+        ContentRegistry content = ContentRegistry.defaults();
+        try (GameClient client = GameClient.connect(host, port)) {
+            client.join(name, askIndex(console, "Class", content.characterCount(), i -> content.character(i).getClassName()),
+                        askIndex(console, "Tool", content.toolCount(), i -> content.tool(i).getName()));
+            System.out.println("Waiting for the match to fill...");
+            while (!client.hasEnded()) {
+                switch (client.read()) {
+                    case GameServer.WELCOME:
+                        System.out.printf("Joined as player %d of %d on a %dx%d map\n", client.getSlot(), client.getPlayers(), client.getMapSize(), client.getMapSize());
+                        break;
+                    case GameServer.STATE:
+                        System.out.printf("R%d  HP %d @(%d,%d)  %s L%d  |  %d alive, zone %d around (%d,%d), %d nearby\n",
+                                          client.getRound(), client.getHp(), client.getX(), client.getY(), content.tool(client.getTool()).getName(),
+                                          client.getLevel(), client.getAlive(), client.getZoneExtent(), client.getZoneCentreX(), client.getZoneCentreY(),
+                                          client.getSeenCount());
+                        break;
+                    case GameServer.TURN:
+                        client.move(askMove(console));
+                        break;
+                    default:
+                        break;
+                }
+            }
+            System.out.println(client.getWinner() == client.getSlot() ? "You won!" : client.getWinner() < 0 ? "Nobody survived." : "Player " + client.getWinner() + " won.");
+        } catch (IOException e) {
+            System.out.println("Connection lost: " + e.getMessage());
+        }
+    }
+
+    private static int askIndex(GameInput console, String what, int count, IntFunction<String> label) {
+        while (true) {
+            System.out.println(what + ":");
+            for (int i = 0; i < count; i++) System.out.println("  [" + (i + 1) + "] " + label.apply(i));
+            try {
+                int v = Integer.parseInt(console.readLine().trim());
+                if (v >= 1 && v <= count) return v - 1;
+            } catch (NumberFormatException e) {
+                // ask again
+            }
+        }
+    }
+
+    private static int askMove(GameInput console) {
+        while (true) {
+            System.out.print("Move (UP/DOWN/LEFT/RIGHT/STAY): ");
+            String line = console.readLine().trim().toUpperCase();
+            for (int i = 0; i < ReplayRecorder.MOVES.length; i++) if (ReplayRecorder.MOVES[i].equals(line)) return i;
+        }
+    }
+
+    private static void runHosted(String[] args) {
+        int matches = Integer.parseInt(args[1]);
+        GameConfig config = new GameConfig()
+            .setNumAI(args.length > 2 ? Integer.parseInt(args[2]) : 8)
+            .setMapSize(args.length > 3 ? Integer.parseInt(args[3]) : GameConfig.DEFAULT_MAP_SIZE)
+            .setDifficulty(args.length > 4 ? Integer.parseInt(args[4]) : 1);
+        int cores = Runtime.getRuntime().availableProcessors();
+        AtomicInteger noWinner = new AtomicInteger();
+        CompletableFuture<?>[] running = new CompletableFuture<?>[matches];
+        long start = System.nanoTime();
+        try (MatchHost host = new MatchHost()) {
+            for (int i = 0; i < matches; i++) {
+                running[i] = host.submit(config).thenAccept(e -> { if (e.getWinner() == null) noWinner.incrementAndGet(); });
+            }
+            CompletableFuture.allOf(running).join();
+            double secs = (System.nanoTime() - start) / 1e9;
+            System.out.printf("%d matches in %.2fs on %s (%.0f matches/s, %.0f per core), %d without winner\n", matches, secs,
+                              host.usesVirtualThreads() ? "virtual threads" : cores + " threads", matches / secs, matches / secs / cores, noWinner.get());
+        }
+    }
+
+    private static void runHeadless(String[] args) {
+        // --metrics times every phase and publishes the totals over JMX while the run lasts
+        EngineMetrics metrics = null;
+        if (args[args.length - 1].equals("--metrics")) {
+            args = Arrays.copyOf(args, args.length - 1);
+            metrics = new EngineMetrics();
+            metrics.register("headless");
+        }
+        int matches = args.length > 1 ? Integer.parseInt(args[1]) : 10000;
+        GameConfig config = new GameConfig()
+            .setNumAI(args.length > 2 ? Integer.parseInt(args[2]) : 8)
+            .setMapSize(args.length > 3 ? Integer.parseInt(args[3]) : GameConfig.DEFAULT_MAP_SIZE);
+
+        long start = System.nanoTime();
+        int noWinner = 0;
+        for (int i = 0; i < matches; i++) {
+            GameEngine engine = new GameEngine(GameOutput.NONE);
+            engine.setMetrics(metrics);
+            if (engine.runMatch(config) == null) noWinner++;
+        }
+        double secs = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%d matches in %.2fs (%.0f matches/s), %d without winner\n", matches, secs, matches / secs, noWinner);
+        if (metrics != null) {
+            System.out.print(metrics.report());
+            metrics.unregister();
+        }
+    }
 }
\ No newline at end of file
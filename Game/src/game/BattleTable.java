@@ -0,0 +1,97 @@
+package game;
+
+// Precomputed fight outcomes. A player's fighting profile is fully determined by
+// (character class, tool type, weapon level), all from the registry's small fixed sets, so every
+// pairing up to MAX_LEVEL is resolved once per registry with the same rules as compute().
+// An outcome is packed as (damage << 1) | (first player wins ? 1 : 0).
+
+final class BattleTable {
+    static final int MAX_LEVEL = 32;
+    static final int NO_PROFILE = -1;
+    // Above this many profiles the table (profiles^2 ints) isn't worth its memory
+    private static final int MAX_PROFILES = 1024;
+
+    private final ToolType.Kind[] kinds;
+    private final int tools;
+    private final int profiles;
+    private final int[] outcomes; // null when the content is too large to tabulate
+
+    BattleTable(ContentRegistry content) {
+        tools = content.toolCount();
+        kinds = new ToolType.Kind[tools];
+        for (int t = 0; t < tools; t++) kinds[t] = content.tool(t).getKind();
+        int n = content.characterCount() * tools * MAX_LEVEL;
+        profiles = n <= MAX_PROFILES ? n : 0;
+        outcomes = profiles > 0 ? build(content) : null;
+    }
+
+    // Profile id for the table, or NO_PROFILE when there is no table or the level is outside it
+    int profile(int charId, int toolId, int lvl) {
+        if (outcomes == null || lvl < 1 || lvl > MAX_LEVEL) return NO_PROFILE;
+        return (charId * tools + toolId) * MAX_LEVEL + (lvl - 1);
+    }
+
+    int lookup(int profileA, int profileB) { return outcomes[profileA * profiles + profileB]; }
+
+    // Outcome of a fight between two slots: the table when both are tabulated, the rules otherwise
+    int outcome(PlayerStore s, int a, int b) {
+        int pa = s.battleProfile[a], pb = s.battleProfile[b];
+        return pa != NO_PROFILE && pb != NO_PROFILE ? lookup(pa, pb) : compute(s, a, b);
+    }
+
+    static boolean firstWins(int outcome) { return (outcome & 1) != 0; }
+    static int damage(int outcome) { return outcome >>> 1; }
+
+    // The battle rules, evaluated directly from the store's cached stats (for players outside the table)
+    int compute(PlayerStore s, int a, int b) {
+        return compute(kinds[s.toolType[a]], s.weaponDamage[a] + s.attack[a], s.defense[a], s.rangedReduction[a], s.weaponLevel[a],
+                       kinds[s.toolType[b]], s.weaponDamage[b] + s.attack[b], s.defense[b], s.rangedReduction[b], s.weaponLevel[b]);
+    }
+
+    private static int compute(ToolType.Kind ak, int aOut, int aDef, int aRanged, int aLvl,
+                               ToolType.Kind bk, int bOut, int bDef, int bRanged, int bLvl) {
+        // [Damage that A deals to B]
+        int aTaken = dealt(ak, aOut, bDef, bRanged);
+        // [Damage that B deals to A]
+        int bTaken = dealt(bk, bOut, aDef, aRanged);
+
+        if (aTaken > bTaken) return (aTaken << 1) | 1;
+        if (bTaken > aTaken) return bTaken << 1;
+        // Tie-breaker: higher weapon level wins
+        return aLvl > bLvl ? (aTaken << 1) | 1 : bTaken << 1;
+    }
+
+    private static int dealt(ToolType.Kind kind, int base, int defense, int rangedReduction) {
+        switch (kind) {
+            case MELEE: return Math.max(1, base - defense);
+            case RANGED: return Math.max(1, base - rangedReduction);
+            default: return 1; // Defense tool deals minimal damage
+        }
+    }
+
+    private int[] build(ContentRegistry content) {
+        ToolType.Kind[] kind = new ToolType.Kind[profiles];
+        int[] out = new int[profiles], def = new int[profiles], ranged = new int[profiles], level = new int[profiles];
+        int p = 0;
+        for (int ci = 0; ci < content.characterCount(); ci++) {
+            Character c = content.character(ci);
+            for (int ti = 0; ti < tools; ti++) {
+                ToolType t = content.tool(ti);
+                for (int lvl = 1; lvl <= MAX_LEVEL; lvl++, p++) {
+                    kind[p] = t.getKind();
+                    out[p] = t.damageAt(lvl) + c.baseAttack + t.attackAt(lvl);
+                    def[p] = c.baseDefense + t.defenseAt(lvl);
+                    ranged[p] = t.reductionAt(lvl);
+                    level[p] = lvl;
+                }
+            }
+        }
+        int[] table = new int[profiles * profiles];
+        for (int a = 0; a < profiles; a++) {
+            for (int b = 0; b < profiles; b++) {
+                table[a * profiles + b] = compute(kind[a], out[a], def[a], ranged[a], level[a], kind[b], out[b], def[b], ranged[b], level[b]);
+            }
+        }
+        return table;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,64 @@
+package game;
+
+import java.util.Arrays;
+
+// A free-for-all on one crowded tile (three or more players). The tile's players, in spatial index
+// order (newest arrival first), form a ring: each fights the next and the last fights the first,
+// so everyone fights exactly twice. Every duel is looked up on the state before the brawl and the
+// losers' damage is summed per player and dealt in one go, so no duel sees another's result and
+// the outcome doesn't depend on the order they are committed in. A death is credited to the last
+// duel (in ring order) its player lost.
+//
+// One pass over the tile list and the ring, O(k) for k players; the arrays are reused, so a brawl
+// allocates nothing. Not thread-safe: one per engine, and one per region for region rounds.
+
+final class Brawl {
+    int count;                        // combatants, and duels
+    int[] slots = new int[8];         // combatant i
+    int[] damage = new int[8];        // summed over the duels combatant i lost
+    int[] outcomes = new int[8];      // duel d: attacker(d) against defender(d)
+    private int[] lastLoss = new int[8];
+
+    // Collects the players on (x, y) and resolves the ring. False (and nothing done) when fewer
+    // than three stand there; the caller then fights a plain duel or rolls for loot.
+    boolean gather(PlayerStore store, SpatialIndex index, int x, int y) {
+        int first = index.first(x, y);
+        if (first == SpatialIndex.NONE || index.next(first) == SpatialIndex.NONE
+            || index.next(index.next(first)) == SpatialIndex.NONE) return false;
+        int k = 0;
+        for (int s = first; s != SpatialIndex.NONE; s = index.next(s)) {
+            if (k == slots.length) grow();
+            slots[k++] = s;
+        }
+        count = k;
+        Arrays.fill(damage, 0, k, 0);
+        BattleTable table = store.getBattleTable();
+        for (int d = 0; d < k; d++) {
+            int outcome = table.outcome(store, attacker(d), defender(d));
+            outcomes[d] = outcome;
+            int l = BattleTable.firstWins(outcome) ? next(d) : d;
+            damage[l] += BattleTable.damage(outcome);
+            lastLoss[l] = d;
+        }
+        return true;
+    }
+
+    int attacker(int d) { return slots[d]; }
+    int defender(int d) { return slots[next(d)]; }
+
+    // Once the damage is dealt: whether duel d is the one that killed its loser
+    boolean lethal(PlayerStore store, int d) {
+        int l = BattleTable.firstWins(outcomes[d]) ? next(d) : d;
+        return lastLoss[l] == d && store.hp[slots[l]] <= 0;
+    }
+
+    private int next(int i) { return i + 1 == count ? 0 : i + 1; }
+
+    private void grow() {
+        int n = slots.length * 2;
+        slots = Arrays.copyOf(slots, n);
+        damage = Arrays.copyOf(damage, n);
+        outcomes = Arrays.copyOf(outcomes, n);
+        lastLoss = Arrays.copyOf(lastLoss, n);
+    }
+}
\ No newline at end of file
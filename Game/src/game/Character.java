@@ -1,25 +1,29 @@
 package game;
 
-public abstract class Character implements Modifiable {
-    protected String name;
-    protected int baseHealth;
-    protected int baseAttack;
-    protected int baseDefense;
-    protected int baseSpeed;
+// A character class from the content registry. There is one shared, immutable instance per
+// class; players only keep its id.
 
-    public Character(String name, int h, int a, int d, int s) {
-        this.name = name;
+public final class Character {
+    private final int id;
+    private final String className;
+    final int baseHealth;
+    final int baseAttack;
+    final int baseDefense;
+    final int baseSpeed;
+
+    Character(int id, String className, int h, int a, int d, int s) {
+        this.id = id;
+        this.className = className;
         this.baseHealth = h;
         this.baseAttack = a;
         this.baseDefense = d;
         this.baseSpeed = s;
     }
 
-    public abstract String getClassName();
-
-    // Default Modifiable methods (base character offers no stat mods)
-    @Override public int getAttackModifier() { return 0; }
-    @Override public int getDefenseModifier() { return 0; }
-    @Override public int getSpeedModifier() { return 0; }
-    @Override public int getDamageReduction() { return 0; }
+    public int getId() { return id; }
+    public String getClassName() { return className; }
+    public int getBaseHealth() { return baseHealth; }
+    public int getBaseAttack() { return baseAttack; }
+    public int getBaseDefense() { return baseDefense; }
+    public int getBaseSpeed() { return baseSpeed; }
 }
\ No newline at end of file
@@ -0,0 +1,129 @@
+package game;
+
+import java.util.Formatter;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+// Console output as a listener. Messages are formatted into a buffer on the engine thread and
+// handed to a writer thread in batches (when the buffer fills and at the end of every round),
+// so a slow terminal doesn't stall the simulation. At most MAX_PENDING_BATCHES wait for the
+// writer; past that the engine thread waits for a free slot instead of queueing more text than
+// the terminal can take. It is also a GameOutput: the engine's own text (map, status, prompts)
+// goes through the same buffer and stays in order with the events.
+// flush() waits until everything so far is written; the engine calls it before reading input.
+// Used by one engine thread at a time.
+
+public final class ConsoleListener implements GameListener, GameOutput {
+    static final int BATCH_CHARS = 8192;
+    static final int MAX_PENDING_BATCHES = 16;
+
+    private final GameOutput target;
+    private final StringBuilder batch = new StringBuilder(BATCH_CHARS * 2);
+    private final Formatter formatter = new Formatter(batch);
+    private ThreadPoolExecutor writer; // started with the first batch
+
+    public ConsoleListener(GameOutput target) { this.target = target; }
+
+    // --- GameOutput ---
+    @Override public void print(String s) { append(s); }
+    @Override public void println(String s) { batch.append(s); append(System.lineSeparator()); }
+    @Override public void println() { append(System.lineSeparator()); }
+
+    @Override
+    public void printf(String format, Object... args) {
+        formatter.format(format, args);
+        if (batch.length() >= BATCH_CHARS) handOff();
+    }
+
+    // --- Events ---
+    @Override
+    public void onRoundStart(int round, Zone zone) {
+        println("\n========================");
+        println(" Round " + round + " | Map area: " + zone.describe());
+        println("========================");
+    }
+
+    @Override public void onZoneShrunk(Zone zone) { println("*** MAP SHRINKS! New area " + zone.describe() + " ***"); }
+
+    @Override public void onZoneDeath(Player p) { println("💀 " + p.getName() + " was eliminated by the shrinking map."); }
+
+    @Override
+    public void onTurn(Player p) {
+        println("\n-- " + p.getName() + "'s turn --");
+        println(p.toString());
+    }
+
+    @Override
+    public void onBattle(Player attacker, Player defender, Player winner, Player loser, int damage) {
+        println("Battle! " + attacker.getName() + " vs " + defender.getName());
+        printf("%s wins and deals %d damage to %s (HP left: %d)\n", winner.getName(), damage, loser.getName(), loser.getCurrentHealth());
+    }
+
+    @Override public void onEliminated(Player winner, Player loser) { println(winner.getName() + " eliminated " + loser.getName()); }
+
+    @Override
+    public void onLooted(Player p, ToolType tool, int level, boolean equipped) {
+        println(p.getName() + " found loot: " + tool.getName() + " (L" + level + ")");
+        println(equipped ? "Equipped new weapon." : "Loot ignored (worse than current).");
+    }
+
+    @Override public void onRoundEnd(int round, int alive) { handOff(); }
+
+    // --- Batching ---
+    private void append(String s) {
+        batch.append(s);
+        if (batch.length() >= BATCH_CHARS) handOff();
+    }
+
+    private void handOff() {
+        if (batch.length() == 0) return;
+        String chunk = batch.toString();
+        batch.setLength(0);
+        if (writer == null) {
+            writer = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                                            new ArrayBlockingQueue<>(MAX_PENDING_BATCHES), r -> {
+                Thread t = new Thread(r, "console-writer");
+                t.setDaemon(true);
+                return t;
+            }, ConsoleListener::waitForSlot);
+        }
+        writer.execute(() -> target.print(chunk));
+    }
+
+    // A full queue means the writer is behind: wait for it rather than run the batch here, which
+    // would print it ahead of the ones still queued
+    private static void waitForSlot(Runnable batch, ThreadPoolExecutor writer) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                writer.getQueue().put(batch);
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) Thread.currentThread().interrupt();
+    }
+
+    // Blocks until everything printed so far has reached the target
+    public void flush() {
+        handOff();
+        if (writer == null) return;
+        try {
+            writer.submit(() -> {}).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Console writer failed", e.getCause());
+        }
+    }
+
+    // Flushes and stops the writer thread; printing afterwards starts a new one
+    public void close() {
+        flush();
+        if (writer != null) writer.shutdown();
+        writer = null;
+    }
+}
\ No newline at end of file
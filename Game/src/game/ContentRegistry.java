@@ -0,0 +1,168 @@
+package game;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// All character classes and tool types of a match, loaded from a content file (see content.txt
+// for the format). Each entry gets an int id in file order. A registry is immutable, so one
+// instance can be shared by any number of engines and threads.
+
+public final class ContentRegistry {
+    private static ContentRegistry defaults;
+
+    private final List<Character> characters;
+    private final List<ToolType> tools;
+    private final Map<String, ToolType> toolsByName = new HashMap<>();
+    private final BattleTable battleTable;
+
+    ContentRegistry(List<Character> characters, List<ToolType> tools) {
+        if (characters.isEmpty() || tools.isEmpty()) throw new IllegalArgumentException("Content needs at least one character and one tool");
+        this.characters = Collections.unmodifiableList(new ArrayList<>(characters));
+        this.tools = Collections.unmodifiableList(new ArrayList<>(tools));
+        for (ToolType t : tools) toolsByName.put(t.getName(), t);
+        this.battleTable = new BattleTable(this);
+    }
+
+    // The content shipped with the game (content.txt next to this class)
+    public static synchronized ContentRegistry defaults() {
+        if (defaults == null) {
+            try (InputStream in = ContentRegistry.class.getResourceAsStream("content.txt")) {
+                if (in == null) throw new IllegalStateException("content.txt missing from the game package");
+                defaults = parse(new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)), "content.txt");
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return defaults;
+    }
+
+    public static ContentRegistry load(Path file) throws IOException {
+        try (BufferedReader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return parse(in, file.toString());
+        }
+    }
+
+    static ContentRegistry parse(BufferedReader in, String source) throws IOException {
+        List<Character> characters = new ArrayList<>();
+        List<ToolType> tools = new ArrayList<>();
+        String line;
+        int lineNo = 0;
+        while ((line = in.readLine()) != null) {
+            lineNo++;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) continue;
+            String[] parts = line.split("\\s+");
+            if (parts.length < 2) throw error(source, lineNo, "expected '<character|tool> <name> key=value...'");
+            Map<String, String> attrs = new HashMap<>();
+            for (int i = 2; i < parts.length; i++) {
+                int eq = parts[i].indexOf('=');
+                if (eq <= 0) throw error(source, lineNo, "bad attribute '" + parts[i] + "'");
+                attrs.put(parts[i].substring(0, eq), parts[i].substring(eq + 1));
+            }
+            try {
+                switch (parts[0]) {
+                    case "character":
+                        characters.add(new Character(characters.size(), parts[1],
+                            required(attrs, "health"), required(attrs, "attack"), required(attrs, "defense"), required(attrs, "speed")));
+                        break;
+                    case "tool":
+                        tools.add(new ToolType(tools.size(), parts[1], kind(attrs.get("kind")),
+                            required(attrs, "damage"), optional(attrs, "damagePerLevel", 5), optional(attrs, "attackPerLevel", 0),
+                            optional(attrs, "defensePerLevel", 0), optional(attrs, "speedPerLevel", 0), optional(attrs, "reductionPerLevel", 0)));
+                        break;
+                    default:
+                        throw new IllegalArgumentException("unknown entry '" + parts[0] + "'");
+                }
+            } catch (IllegalArgumentException e) {
+                throw error(source, lineNo, e.getMessage());
+            }
+        }
+        return new ContentRegistry(characters, tools);
+    }
+
+    private static int required(Map<String, String> attrs, String key) {
+        String v = attrs.get(key);
+        if (v == null) throw new IllegalArgumentException("missing " + key);
+        return Integer.parseInt(v);
+    }
+
+    private static int optional(Map<String, String> attrs, String key, int def) {
+        String v = attrs.get(key);
+        return v == null ? def : Integer.parseInt(v);
+    }
+
+    private static ToolType.Kind kind(String v) {
+        if (v == null) throw new IllegalArgumentException("missing kind");
+        return ToolType.Kind.valueOf(v.toUpperCase());
+    }
+
+    private static IllegalArgumentException error(String source, int line, String msg) {
+        return new IllegalArgumentException(source + ":" + line + ": " + msg);
+    }
+
+    // A copy with one number changed, for balance experiments. key is "<Class>.<stat>" with
+    // health/attack/defense/speed, or "<Tool>.<param>" with any tool parameter of the content file.
+    public ContentRegistry with(String key, int value) {
+        int dot = key.indexOf('.');
+        if (dot <= 0) throw new IllegalArgumentException("Expected <name>.<stat>, got '" + key + "'");
+        String name = key.substring(0, dot), stat = key.substring(dot + 1);
+        List<Character> cs = new ArrayList<>(characters);
+        List<ToolType> ts = new ArrayList<>(tools);
+        boolean found = false;
+        for (int i = 0; i < cs.size(); i++) {
+            Character c = cs.get(i);
+            if (!c.getClassName().equals(name)) continue;
+            int h = c.baseHealth, a = c.baseAttack, d = c.baseDefense, sp = c.baseSpeed;
+            switch (stat) {
+                case "health": h = value; break;
+                case "attack": a = value; break;
+                case "defense": d = value; break;
+                case "speed": sp = value; break;
+                default: throw new IllegalArgumentException("Unknown character stat '" + stat + "'");
+            }
+            cs.set(i, new Character(i, name, h, a, d, sp));
+            found = true;
+        }
+        for (int i = 0; i < ts.size(); i++) {
+            ToolType t = ts.get(i);
+            if (!t.getName().equals(name)) continue;
+            int dmg = t.getBaseDamage(), dpl = t.getDamagePerLevel(), apl = t.getAttackPerLevel();
+            int defpl = t.getDefensePerLevel(), spl = t.getSpeedPerLevel(), rpl = t.getReductionPerLevel();
+            switch (stat) {
+                case "damage": dmg = value; break;
+                case "damagePerLevel": dpl = value; break;
+                case "attackPerLevel": apl = value; break;
+                case "defensePerLevel": defpl = value; break;
+                case "speedPerLevel": spl = value; break;
+                case "reductionPerLevel": rpl = value; break;
+                default: throw new IllegalArgumentException("Unknown tool parameter '" + stat + "'");
+            }
+            ts.set(i, new ToolType(i, name, t.getKind(), dmg, dpl, apl, defpl, spl, rpl));
+            found = true;
+        }
+        if (!found) throw new IllegalArgumentException("No class or tool named '" + name + "'");
+        return new ContentRegistry(cs, ts);
+    }
+
+    public int characterCount() { return characters.size(); }
+    public Character character(int id) { return characters.get(id); }
+    public List<Character> getCharacters() { return characters; }
+
+    public int toolCount() { return tools.size(); }
+    public ToolType tool(int id) { return tools.get(id); }
+    public ToolType toolByName(String name) { return toolsByName.get(name); }
+    public List<ToolType> getTools() { return tools; }
+
+    BattleTable getBattleTable() { return battleTable; }
+}
\ No newline at end of file
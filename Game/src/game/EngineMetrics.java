@@ -0,0 +1,193 @@
+package game;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Formatter;
+import java.util.Locale;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+// Counters and per-phase latency histograms for GameEngine (attach with GameEngine.setMetrics).
+// Event counters come in as a GameListener; phase times are laps the engine records around each
+// part of a round. Recording only bumps longs in preallocated arrays, so a match costs a few
+// System.nanoTime calls per turn and nothing else, and metrics can stay on in production.
+//
+// One instance may serve any number of engines one after another (a headless run attaches the
+// same instance to every match). It is written by the engine thread only; JMX and report()
+// read it without locking, so they can be a moment stale while a match runs.
+
+public final class EngineMetrics implements EngineMetricsMBean, GameListener {
+    // Phases of a round
+    static final int ROUND = 0;      // the whole round, up to the end-of-round prompt
+    static final int SHRINK = 1;     // zone shrink and zone deaths
+    static final int RENDER = 2;     // map and status
+    static final int FIELD = 3;      // influence map rebuild
+    static final int TURN_ORDER = 4; // scheduler round start
+    static final int MOVE = 5;       // turn pick, move decision, step
+    static final int ENCOUNTER = 6;  // opponent lookup (and the loot roll or pickup when there is none)
+    static final int BATTLE = 7;     // resolveBattle
+    static final int REGIONS = 8;    // parallel region pass of a region round
+    static final int MERGE = 9;      // committing the regions' events
+    static final int LOOT = 10;      // world loot spawning
+    private static final String[] PHASES = {
+        "round", "shrink", "render", "field", "turnOrder", "move", "encounter", "battle", "regions", "merge", "loot"
+    };
+
+    private long matches, rounds, moves, battles, eliminations, zoneDeaths, lootRolls, lootFound;
+    private final Histogram[] phases = new Histogram[PHASES.length];
+    private long since = System.nanoTime();
+    private ObjectName registeredAs;
+
+    public EngineMetrics() {
+        for (int i = 0; i < phases.length; i++) phases[i] = new Histogram();
+    }
+
+    // --- Recording (engine thread) ---
+    @Override public void onRoundStart(int round, Zone zone) { rounds++; }
+    @Override public void onMoved(Player p, int x, int y) { moves++; }
+    @Override public void onBattle(Player attacker, Player defender, Player winner, Player loser, int damage) { battles++; }
+    @Override public void onEliminated(Player winner, Player loser) { eliminations++; }
+    @Override public void onZoneDeath(Player p) { zoneDeaths++; }
+    @Override public void onLooted(Player p, ToolType tool, int level, boolean equipped) { lootFound++; }
+    @Override public void onMatchEnd(Player winner, int matchRounds) { matches++; }
+
+    // Loot rolls have no event (most of them find nothing)
+    void countLootRolls(int n) { lootRolls += n; }
+
+    // Records the time since `start` for a phase and returns now, the start of the next lap
+    long lap(int phase, long start) {
+        long now = System.nanoTime();
+        phases[phase].record(now - start);
+        return now;
+    }
+
+    void record(int phase, long nanos) { phases[phase].record(nanos); }
+
+    @Override
+    public void reset() {
+        matches = rounds = moves = battles = eliminations = zoneDeaths = lootRolls = lootFound = 0;
+        for (Histogram h : phases) h.clear();
+        since = System.nanoTime();
+    }
+
+    // --- JMX ---
+    // Publishes this instance as game:type=EngineMetrics,name=<name> on the platform MBean server
+    public void register(String name) {
+        try {
+            ObjectName on = new ObjectName("game:type=EngineMetrics,name=" + ObjectName.quote(name));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, on);
+            registeredAs = on;
+        } catch (JMException e) {
+            throw new IllegalStateException("Could not register metrics as " + name, e);
+        }
+    }
+
+    public void unregister() {
+        if (registeredAs == null) return;
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(registeredAs);
+        } catch (JMException e) {
+            throw new IllegalStateException("Could not unregister " + registeredAs, e);
+        } finally {
+            registeredAs = null;
+        }
+    }
+
+    // --- Results ---
+    @Override public long getMatches() { return matches; }
+    @Override public long getRounds() { return rounds; }
+    @Override public long getMoves() { return moves; }
+    @Override public long getBattles() { return battles; }
+    @Override public long getEliminations() { return eliminations; }
+    @Override public long getZoneDeaths() { return zoneDeaths; }
+    @Override public long getLootRolls() { return lootRolls; }
+    @Override public long getLootFound() { return lootFound; }
+
+    @Override public double getRoundsPerSecond() { return perSecond(rounds); }
+    @Override public double getMovesPerSecond() { return perSecond(moves); }
+
+    private double perSecond(long n) {
+        long elapsed = System.nanoTime() - since;
+        return elapsed <= 0 ? 0 : n * 1e9 / elapsed;
+    }
+
+    @Override public String[] getPhases() { return PHASES.clone(); }
+    @Override public long getPhaseCount(String phase) { return phase(phase).count; }
+    @Override public double getMeanNanos(String phase) { return phase(phase).mean(); }
+    @Override public long getPercentileNanos(String phase, double percentile) { return phase(phase).percentile(percentile); }
+    @Override public long getMaxNanos(String phase) { return phase(phase).max; }
+
+    private Histogram phase(String name) {
+        for (int i = 0; i < PHASES.length; i++) if (PHASES[i].equals(name)) return phases[i];
+        throw new IllegalArgumentException("Unknown phase " + name + ", expected one of " + Arrays.toString(PHASES));
+    }
+
+    @Override public String getReport() { return report(); }
+
+    // Counters, then one line per phase that was timed at all (times in microseconds)
+    public String report() {
+        StringBuilder sb = new StringBuilder();
+        Formatter f = new Formatter(sb, Locale.ROOT);
+        f.format("-- Engine metrics --%n");
+        f.format("matches %d, rounds %d (%.0f/s), moves %d (%.0f/s)%n", matches, rounds, getRoundsPerSecond(), moves, getMovesPerSecond());
+        f.format("battles %d, eliminations %d, zone deaths %d, loot %d found in %d rolls%n",
+                 battles, eliminations, zoneDeaths, lootFound, lootRolls);
+        f.format("%-10s %10s %10s %10s %10s %10s%n", "phase (us)", "count", "mean", "p50", "p99", "max");
+        for (int i = 0; i < PHASES.length; i++) {
+            Histogram h = phases[i];
+            if (h.count == 0) continue;
+            f.format("%-10s %10d %10.2f %10.2f %10.2f %10.2f%n", PHASES[i], h.count, h.mean() / 1e3,
+                     h.percentile(50) / 1e3, h.percentile(99) / 1e3, h.max / 1e3);
+        }
+        return sb.toString();
+    }
+
+    // --- Log-bucket histogram: 4 buckets per power of two, so a bucket spans at most 25% of its value ---
+    static final class Histogram {
+        private static final int SUB_BITS = 2;
+        private static final int SUB = 1 << SUB_BITS;
+        private final long[] buckets = new long[(64 - SUB_BITS + 1) << SUB_BITS];
+        long count, sum, max;
+
+        static int bucket(long v) {
+            if (v < SUB) return (int) v;
+            int exp = 63 - Long.numberOfLeadingZeros(v);
+            return ((exp - SUB_BITS + 1) << SUB_BITS) + (int) ((v >>> (exp - SUB_BITS)) & (SUB - 1));
+        }
+
+        // Largest value that falls in bucket b
+        static long upperBound(int b) {
+            if (b < SUB) return b;
+            int exp = (b >>> SUB_BITS) + SUB_BITS - 1;
+            long low = (long) (SUB + (b & (SUB - 1))) << (exp - SUB_BITS);
+            return low + (1L << (exp - SUB_BITS)) - 1;
+        }
+
+        void record(long v) {
+            if (v < 0) v = 0;
+            buckets[bucket(v)]++;
+            count++;
+            sum += v;
+            if (v > max) max = v;
+        }
+
+        double mean() { return count == 0 ? 0 : (double) sum / count; }
+
+        long percentile(double p) {
+            if (count == 0) return 0;
+            long rank = Math.max(1, (long) Math.ceil(count * Math.min(100, Math.max(0, p)) / 100));
+            long seen = 0;
+            for (int b = 0; b < buckets.length; b++) {
+                seen += buckets[b];
+                if (seen >= rank) return Math.min(upperBound(b), max);
+            }
+            return max;
+        }
+
+        void clear() {
+            Arrays.fill(buckets, 0);
+            count = sum = max = 0;
+        }
+    }
+}
\ No newline at end of file
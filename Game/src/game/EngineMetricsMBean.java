@@ -0,0 +1,29 @@
+package game;
+
+// JMX view of an EngineMetrics (see EngineMetrics.register). Times are in nanoseconds; phase
+// names are those of getPhases().
+
+public interface EngineMetricsMBean {
+    long getMatches();
+    long getRounds();
+    long getMoves();
+    long getBattles();
+    long getEliminations();
+    long getZoneDeaths();
+    long getLootRolls();
+    long getLootFound();
+
+    // Since creation or the last reset
+    double getRoundsPerSecond();
+    double getMovesPerSecond();
+
+    String[] getPhases();
+    long getPhaseCount(String phase);
+    double getMeanNanos(String phase);
+    // Upper bound of the histogram bucket holding the percentile (0..100)
+    long getPercentileNanos(String phase, double percentile);
+    long getMaxNanos(String phase);
+
+    String getReport();
+    void reset();
+}
\ No newline at end of file
@@ -0,0 +1,185 @@
+package game;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.IntFunction;
+
+// Fixed-capacity ring buffer of compact event records. Recording is a handful of array
+// stores; text is only produced when the log is printed. When a spill file is set, records
+// that fall out of the ring are appended to it in binary, so the full match is kept on disk.
+// As a GameListener it records the engine's events itself and closes at the end of the match.
+
+public class EventLog implements GameListener {
+    private static final int RECORD_BYTES = 17;
+
+    private final byte[] type;
+    private final int[] round;
+    private final int[] actor;
+    private final int[] target;
+    private final int[] payload;
+    private int head; // index of the oldest record
+    private int count;
+    private long total;
+    private DataOutputStream spill;
+    private int currentRound; // stamped on events recorded through the listener methods
+
+    public EventLog(int capacity) {
+        if (capacity < 1) throw new IllegalArgumentException("Capacity must be positive");
+        type = new byte[capacity];
+        round = new int[capacity];
+        actor = new int[capacity];
+        target = new int[capacity];
+        payload = new int[capacity];
+    }
+
+    public EventLog(int capacity, Path spillFile) {
+        this(capacity);
+        try {
+            spill = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(spillFile), 1 << 16));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void add(EventType t, int r, int a, int b, int p) {
+        int i;
+        if (count == type.length) {
+            if (spill != null) write(head);
+            i = head;
+            head = (head + 1) % type.length;
+        } else {
+            i = (head + count++) % type.length;
+        }
+        type[i] = (byte) t.ordinal();
+        round[i] = r;
+        actor[i] = a;
+        target[i] = b;
+        payload[i] = p;
+        total++;
+    }
+
+    // --- GameListener ---
+    @Override public void onPlaced(Player p, int x, int y) { add(EventType.PLACED, currentRound, p.getSlot(), -1, EventType.pos(x, y)); }
+    @Override public void onRoundStart(int r, Zone zone) { currentRound = r; }
+    @Override public void onZoneShrunk(Zone zone) { add(EventType.SHRUNK, currentRound, -1, zone.getShape().ordinal(), zone.getExtent()); }
+    @Override public void onZoneDeath(Player p) { add(EventType.SHRINK_DEATH, currentRound, p.getSlot(), -1, 0); }
+    @Override public void onMoved(Player p, int x, int y) { add(EventType.MOVED, currentRound, p.getSlot(), -1, EventType.pos(x, y)); }
+
+    @Override
+    public void onBattle(Player attacker, Player defender, Player winner, Player loser, int damage) {
+        add(EventType.BEAT, currentRound, winner.getSlot(), loser.getSlot(), damage);
+    }
+
+    @Override public void onEliminated(Player winner, Player loser) { add(EventType.ELIMINATED, currentRound, winner.getSlot(), loser.getSlot(), 0); }
+
+    @Override
+    public void onLooted(Player p, ToolType tool, int level, boolean equipped) {
+        if (equipped) add(EventType.EQUIPPED, currentRound, p.getSlot(), tool.getId(), level);
+    }
+
+    @Override public void onMatchEnd(Player winner, int rounds) { close(); } // flushes the spill file, if any
+
+    public int size() { return count; }
+    public int capacity() { return type.length; }
+    public long totalRecorded() { return total; }
+
+    // i = 0 is the oldest record still in the ring
+    public EventType typeAt(int i) { return EventType.VALUES[type[slot(i)]]; }
+    public int roundAt(int i) { return round[slot(i)]; }
+    public int actorAt(int i) { return actor[slot(i)]; }
+    public int targetAt(int i) { return target[slot(i)]; }
+    public int payloadAt(int i) { return payload[slot(i)]; }
+
+    private int slot(int i) { return (head + i) % type.length; }
+
+    public String format(int i, IntFunction<String> playerName, IntFunction<String> toolName) {
+        int s = slot(i);
+        String a = actor[s] >= 0 ? playerName.apply(actor[s]) : "";
+        int p = payload[s];
+        String text;
+        switch (EventType.VALUES[type[s]]) {
+            case PLACED: text = String.format("Placed %s at (%d,%d)", a, EventType.posX(p), EventType.posY(p)); break;
+            case MOVED: text = a + " moved to (" + EventType.posX(p) + "," + EventType.posY(p) + ")"; break;
+            case EQUIPPED: text = a + " equipped " + toolName.apply(target[s]) + " L" + p; break;
+            case BEAT: text = String.format("%s beat %s for %d dmg", a, playerName.apply(target[s]), p); break;
+            case ELIMINATED: text = a + " eliminated " + playerName.apply(target[s]) + " and leveled up."; break;
+            case SHRUNK:
+                // The square keeps the classic wording (records from before shapes have no target)
+                text = target[s] <= 0 ? "Map shrunk to 0.." + p : "Zone shrunk to extent " + p;
+                break;
+            case SHRINK_DEATH: text = a + " died to shrink"; break;
+            default: text = "?";
+        }
+        return String.format("R%d: %s", round[s], text);
+    }
+
+    public void dump(GameOutput out, IntFunction<String> playerName, IntFunction<String> toolName) {
+        for (int i = 0; i < count; i++) out.println(format(i, playerName, toolName));
+    }
+
+    // Writes what is still in the ring to the spill file and closes it
+    public void close() {
+        if (spill == null) return;
+        try {
+            for (int i = 0; i < count; i++) write(slot(i));
+            spill.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        spill = null;
+    }
+
+    private void write(int s) {
+        try {
+            spill.writeByte(type[s]);
+            spill.writeInt(round[s]);
+            spill.writeInt(actor[s]);
+            spill.writeInt(target[s]);
+            spill.writeInt(payload[s]);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // --- Snapshots: the retained records, oldest first, in the spill file's record layout ---
+    int stateBytes() { return 16 + count * RECORD_BYTES; }
+
+    void writeState(ByteBuffer buf) {
+        buf.putInt(count).putLong(total).putInt(currentRound);
+        for (int i = 0; i < count; i++) {
+            int s = slot(i);
+            buf.put(type[s]).putInt(round[s]).putInt(actor[s]).putInt(target[s]).putInt(payload[s]);
+        }
+    }
+
+    // Into an empty log; a smaller capacity keeps the newest records
+    void readState(ByteBuffer buf) {
+        int n = buf.getInt();
+        long savedTotal = buf.getLong();
+        currentRound = buf.getInt();
+        for (int i = 0; i < n; i++) add(EventType.VALUES[buf.get()], buf.getInt(), buf.getInt(), buf.getInt(), buf.getInt());
+        total = savedTotal;
+    }
+
+    // Reads a closed spill file back into a log that holds all of it
+    public static EventLog load(Path file) throws IOException {
+        int records = (int) (Files.size(file) / RECORD_BYTES);
+        EventLog log = new EventLog(Math.max(1, records));
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            for (int i = 0; i < records; i++) {
+                log.add(EventType.VALUES[in.readByte()], in.readInt(), in.readInt(), in.readInt(), in.readInt());
+            }
+        } catch (EOFException e) {
+            // truncated tail from a crash: keep what was read
+        }
+        return log;
+    }
+}
\ No newline at end of file
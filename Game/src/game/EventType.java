@@ -0,0 +1,20 @@
+package game;
+
+// Kinds of entries in the operations log. Each record stores the acting player, an optional
+// target (a player, or a tool code for EQUIPPED) and one int payload.
+
+public enum EventType {
+    PLACED,        // actor, payload = packed (x,y)
+    MOVED,         // actor, payload = packed (x,y)
+    EQUIPPED,      // actor, target = tool code, payload = level
+    BEAT,          // actor = winner, target = loser, payload = damage
+    ELIMINATED,    // actor = winner, target = loser
+    SHRUNK,        // target = zone shape (Zone.Shape ordinal), payload = new zone extent (Zone.getExtent)
+    SHRINK_DEATH;  // actor
+
+    static final EventType[] VALUES = values();
+
+    static int pos(int x, int y) { return (x << 16) | y; }
+    static int posX(int packed) { return packed >>> 16; }
+    static int posY(int packed) { return packed & 0xFFFF; }
+}
\ No newline at end of file
@@ -0,0 +1,146 @@
+package game;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+
+// Blocking client for GameServer (the frame layout is documented there). read() waits for the
+// next frame and keeps what it carried: the latest STATE, the slot from WELCOME, the result from
+// END. One thread per client; used by the console client and for loopback tests.
+
+public final class GameClient implements AutoCloseable {
+    private final SocketChannel channel;
+    private final ByteBuffer in = ByteBuffer.allocate(1 << 16);
+    private final ByteBuffer out = ByteBuffer.allocate(GameServer.MAX_CLIENT_FRAME + 2);
+
+    private int slot = -1, players, mapSize;
+    private int round, zoneCentreX, zoneCentreY, zoneExtent, alive, hp, x, y, tool, level;
+    private Zone.Shape zoneShape;
+    private int seen;
+    private int[] seenX = new int[16], seenY = new int[16], seenHp = new int[16];
+    private int winner = -2, rounds;
+
+    private GameClient(SocketChannel channel) {
+        this.channel = channel;
+        in.flip();
+    }
+
+    public static GameClient connect(String host, int port) throws IOException {
+        SocketChannel ch = SocketChannel.open(new InetSocketAddress(host, port));
+        ch.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        return new GameClient(ch);
+    }
+
+    // Queues for the next match; names longer than GameServer.MAX_NAME_BYTES are cut
+    public void join(String name, int charId, int toolId) throws IOException {
+        byte[] utf = name.getBytes(StandardCharsets.UTF_8);
+        int n = Math.min(utf.length, GameServer.MAX_NAME_BYTES);
+        out.clear();
+        out.putShort((short) (3 + n)).put(GameServer.JOIN).put((byte) charId).put((byte) toolId).put(utf, 0, n);
+        send();
+        winner = -2;
+    }
+
+    public void move(int dir) throws IOException {
+        out.clear();
+        out.putShort((short) 2).put(GameServer.MOVE).put((byte) dir);
+        send();
+    }
+
+    private void send() throws IOException {
+        out.flip();
+        while (out.hasRemaining()) channel.write(out);
+    }
+
+    // Blocks for the next frame and returns its type (GameServer.WELCOME, STATE, TURN or END)
+    public byte read() throws IOException {
+        fill(2);
+        int len = in.getShort() & 0xFFFF;
+        fill(len);
+        int end = in.position() + len;
+        byte type = in.get();
+        switch (type) {
+            case GameServer.WELCOME:
+                slot = in.getShort();
+                players = in.getShort() & 0xFFFF;
+                mapSize = in.getShort() & 0xFFFF;
+                break;
+            case GameServer.STATE:
+                round = in.getInt();
+                zoneShape = Zone.Shape.values()[in.get()];
+                zoneCentreX = in.getShort();
+                zoneCentreY = in.getShort();
+                zoneExtent = in.getShort();
+                alive = in.getShort() & 0xFFFF;
+                hp = in.getShort();
+                x = in.getShort();
+                y = in.getShort();
+                tool = in.get() & 0xFF;
+                level = in.get() & 0xFF;
+                seen = in.getShort() & 0xFFFF;
+                if (seen > seenX.length) {
+                    seenX = new int[seen];
+                    seenY = new int[seen];
+                    seenHp = new int[seen];
+                }
+                for (int i = 0; i < seen; i++) {
+                    seenX[i] = in.getShort();
+                    seenY[i] = in.getShort();
+                    seenHp[i] = in.getShort();
+                }
+                break;
+            case GameServer.END:
+                winner = in.getShort();
+                rounds = in.getInt();
+                break;
+            default:
+                break; // TURN, or a frame this client doesn't know
+        }
+        in.position(end);
+        return type;
+    }
+
+    // Until at least n bytes are buffered
+    private void fill(int n) throws IOException {
+        if (in.remaining() >= n) return;
+        in.compact();
+        while (in.position() < n) {
+            if (channel.read(in) < 0) throw new EOFException("Server closed the connection");
+        }
+        in.flip();
+    }
+
+    // --- From WELCOME ---
+    public int getSlot() { return slot; }
+    public int getPlayers() { return players; }
+    public int getMapSize() { return mapSize; }
+
+    // --- From the latest STATE ---
+    public int getRound() { return round; }
+    public Zone.Shape getZoneShape() { return zoneShape; }
+    public int getZoneCentreX() { return zoneCentreX; }
+    public int getZoneCentreY() { return zoneCentreY; }
+    public int getZoneExtent() { return zoneExtent; }
+    public int getAlive() { return alive; }
+    public int getHp() { return hp; }
+    public int getX() { return x; }
+    public int getY() { return y; }
+    public int getTool() { return tool; }
+    public int getLevel() { return level; }
+    public int getSeenCount() { return seen; }
+    public int getSeenX(int i) { return seenX[i]; }
+    public int getSeenY(int i) { return seenY[i]; }
+    public int getSeenHp(int i) { return seenHp[i]; }
+
+    // --- From END ---
+    public boolean hasEnded() { return winner != -2; }
+    public int getWinner() { return winner; }
+    public int getRounds() { return rounds; }
+
+    @Override
+    public void close() throws IOException { channel.close(); }
+}
\ No newline at end of file
@@ -0,0 +1,186 @@
+package game;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+
+// Settings for a match that is built without the console setup prompts.
+// Used for headless AI-only simulations (balance testing, benchmarks).
+
+public class GameConfig {
+    public static final int DEFAULT_MAP_SIZE = 10;
+    public static final int MAX_MAP_SIZE = 10000;
+    public static final int DEFAULT_LOG_CAPACITY = 1000;
+    public static final double DEFAULT_LOOT_CHANCE = 0.05;
+    public static final int DEFAULT_SHRINK_INTERVAL = 3;
+
+    private int numAI = 8;
+    private int mapSize = DEFAULT_MAP_SIZE;
+    private int difficulty = 1;
+    private int logCapacity = DEFAULT_LOG_CAPACITY;
+    private Path logSpillFile;
+    private Long seed;
+    private boolean speedScaledTurns = false;
+    private boolean ansiRendering = false;
+    private boolean minimap = false;
+    private int viewSize = MapRenderer.DEFAULT_VIEW;
+    private ContentRegistry content;
+    private MoveStrategy moveStrategy;
+    private double lootChance = DEFAULT_LOOT_CHANCE;
+    private boolean worldLoot = false;
+    private Zone.Shape zoneShape = Zone.Shape.SQUARE;
+    // Shrink schedule: phase i starts at round phaseStart[i]; phase 0 starts at round 1
+    private int[] phaseStart = {1};
+    private int[] phaseInterval = {DEFAULT_SHRINK_INTERVAL};
+    private int regionSize = 0;
+
+    public GameConfig() {}
+
+    public GameConfig(int numAI, int difficulty) {
+        setNumAI(numAI);
+        setDifficulty(difficulty);
+    }
+
+    // Independent copy (the move strategy and content are shared, they are immutable or per-engine)
+    public GameConfig copy() {
+        GameConfig c = new GameConfig();
+        c.numAI = numAI;
+        c.mapSize = mapSize;
+        c.difficulty = difficulty;
+        c.logCapacity = logCapacity;
+        c.logSpillFile = logSpillFile;
+        c.seed = seed;
+        c.speedScaledTurns = speedScaledTurns;
+        c.ansiRendering = ansiRendering;
+        c.minimap = minimap;
+        c.viewSize = viewSize;
+        c.content = content;
+        c.moveStrategy = moveStrategy;
+        c.lootChance = lootChance;
+        c.worldLoot = worldLoot;
+        c.zoneShape = zoneShape;
+        c.phaseStart = phaseStart.clone();
+        c.phaseInterval = phaseInterval.clone();
+        c.regionSize = regionSize;
+        return c;
+    }
+
+    public GameConfig setNumAI(int numAI) {
+        if (numAI < 2) throw new IllegalArgumentException("A match needs at least 2 AI players");
+        this.numAI = numAI;
+        return this;
+    }
+
+    public GameConfig setDifficulty(int difficulty) {
+        if (difficulty < 1 || difficulty > 3) throw new IllegalArgumentException("Difficulty must be 1..3");
+        this.difficulty = difficulty;
+        return this;
+    }
+
+    // Side length of the square map; the zone keeps shrinking down to 0..3 so anything smaller is pointless
+    public GameConfig setMapSize(int mapSize) {
+        if (mapSize < 4 || mapSize > MAX_MAP_SIZE) throw new IllegalArgumentException("Map size must be 4.." + MAX_MAP_SIZE);
+        this.mapSize = mapSize;
+        return this;
+    }
+
+    // false: everyone moves once per round, fastest first. true: faster players act more often
+    public GameConfig setSpeedScaledTurns(boolean speedScaledTurns) { this.speedScaledTurns = speedScaledTurns; return this; }
+
+    // Map drawing (only when the output sink is enabled). Maps larger than the view are shown
+    // through a scrolling viewport, or downsampled to fit when minimap is on.
+    public GameConfig setAnsiRendering(boolean ansiRendering) { this.ansiRendering = ansiRendering; return this; }
+    public GameConfig setMinimap(boolean minimap) { this.minimap = minimap; return this; }
+
+    public GameConfig setViewSize(int viewSize) {
+        if (viewSize < 4) throw new IllegalArgumentException("View size must be at least 4");
+        this.viewSize = viewSize;
+        return this;
+    }
+
+    // Fixed seed for a reproducible match; unseeded matches pick one from the clock
+    public GameConfig setSeed(long seed) { this.seed = seed; return this; }
+
+    // Number of events the operations log keeps in memory
+    public GameConfig setLogCapacity(int logCapacity) {
+        if (logCapacity < 1) throw new IllegalArgumentException("Log capacity must be positive");
+        this.logCapacity = logCapacity;
+        return this;
+    }
+
+    // Events pushed out of the ring are written here (binary, see EventLog.load)
+    public GameConfig setLogSpillFile(Path logSpillFile) { this.logSpillFile = logSpillFile; return this; }
+
+    // Character classes and tools to play with (ContentRegistry.defaults() unless set)
+    public GameConfig setContent(ContentRegistry content) { this.content = content; return this; }
+
+    // Chance per move (without a fight) to find loot; with world loot, new items per living player per round
+    public GameConfig setLootChance(double lootChance) {
+        if (lootChance < 0 || lootChance > 1) throw new IllegalArgumentException("Loot chance must be 0..1");
+        this.lootChance = lootChance;
+        return this;
+    }
+
+    // Loot lies on the map (WorldLoot) instead of being rolled for: items appear on random tiles every
+    // round, a player stepping on one takes it if it beats their weapon and leaves the weapon there,
+    // and field-guided AIs (difficulty 2, and 3 when it falls back) head for better items nearby
+    public GameConfig setWorldLoot(boolean worldLoot) { this.worldLoot = worldLoot; return this; }
+
+    // The zone shrinks at the start of every n-th round (until the first later phase, if any)
+    public GameConfig setShrinkInterval(int shrinkInterval) {
+        if (shrinkInterval < 1) throw new IllegalArgumentException("Shrink interval must be positive");
+        phaseInterval[0] = shrinkInterval;
+        return this;
+    }
+
+    // From fromRound on, the zone shrinks every interval rounds instead. Phases must be added in
+    // round order.
+    public GameConfig addShrinkPhase(int fromRound, int interval) {
+        if (fromRound <= phaseStart[phaseStart.length - 1]) throw new IllegalArgumentException("Shrink phases must start after round " + phaseStart[phaseStart.length - 1]);
+        if (interval < 1) throw new IllegalArgumentException("Shrink interval must be positive");
+        phaseStart = Arrays.copyOf(phaseStart, phaseStart.length + 1);
+        phaseInterval = Arrays.copyOf(phaseInterval, phaseInterval.length + 1);
+        phaseStart[phaseStart.length - 1] = fromRound;
+        phaseInterval[phaseInterval.length - 1] = interval;
+        return this;
+    }
+
+    public GameConfig setZoneShape(Zone.Shape zoneShape) { this.zoneShape = zoneShape; return this; }
+
+    // 0: turns are played one after another (the classic round). Otherwise the map is cut into
+    // regions of about this many tiles a side (rounded up to a power of two) whose turns are played
+    // in parallel, everyone once per round; see RegionTicker. Same seed, same match, on any
+    // number of threads. Needs a thread-safe strategy (difficulty 1 or 2) and no speed-scaled turns.
+    public GameConfig setRegionSize(int regionSize) {
+        if (regionSize < 0) throw new IllegalArgumentException("Region size can't be negative");
+        this.regionSize = regionSize;
+        return this;
+    }
+
+    // AI movement; by default chosen from the difficulty (MoveStrategy.forDifficulty)
+    public GameConfig setMoveStrategy(MoveStrategy moveStrategy) { this.moveStrategy = moveStrategy; return this; }
+
+    public int getNumAI() { return numAI; }
+    public int getDifficulty() { return difficulty; }
+    public int getMapSize() { return mapSize; }
+    public boolean isAnsiRendering() { return ansiRendering; }
+    public boolean isMinimap() { return minimap; }
+    public int getViewSize() { return viewSize; }
+    public boolean hasSeed() { return seed != null; }
+    public long getSeed() { return seed; }
+    public int getLogCapacity() { return logCapacity; }
+    public Path getLogSpillFile() { return logSpillFile; }
+    public boolean isSpeedScaledTurns() { return speedScaledTurns; }
+    public double getLootChance() { return lootChance; }
+    public boolean isWorldLoot() { return worldLoot; }
+    public int getShrinkInterval() { return phaseInterval[0]; }
+    public Zone.Shape getZoneShape() { return zoneShape; }
+    public int getShrinkPhaseCount() { return phaseStart.length; }
+    public int getShrinkPhaseStart(int i) { return phaseStart[i]; }
+    public int getShrinkPhaseInterval(int i) { return phaseInterval[i]; }
+
+    // This config's zone shape and schedule on a map (rnd is only used by the moving zone)
+    Zone createZone(int mapSize, RandomSource rnd) { return Zone.create(zoneShape, mapSize, phaseStart, phaseInterval, rnd); }
+    public int getRegionSize() { return regionSize; }
+    public MoveStrategy getMoveStrategy() { return moveStrategy; }
+    public ContentRegistry getContent() { return content != null ? content : ContentRegistry.defaults(); }
+}
\ No newline at end of file
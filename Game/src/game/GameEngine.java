@@ -1,411 +1,839 @@
 package game;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntConsumer;
 
 public class GameEngine {
-    private final int MAP_SIZE = 10;
-    private int mapLimit = MAP_SIZE - 1; // inclusive upper bound (0 to 9)
+    private int mapSize = GameConfig.DEFAULT_MAP_SIZE;
+    private MapRenderer renderer = MapRenderer.create(false, MapRenderer.DEFAULT_VIEW, false);
     private final List<Player> players = new ArrayList<>();
-    private final Random rnd = new Random();
-    private final List<String> log = new ArrayList<>();
-    // Use an instance of Scanner for consistency
-    private final Scanner scanner = new Scanner(System.in); 
+    private ContentRegistry content = ContentRegistry.defaults();
+    private PlayerStore store = new PlayerStore(content);
+    private SpatialIndex index;
+    private TurnScheduler scheduler;
+    private boolean speedScaledTurns;
+    // Independent random streams: roster picks, placement, world loot, and one per player for its turns
+    private RandomSource roster;
+    private RandomSource placement;
+    private RandomSource[] playerRandom = new RandomSource[0];
+    private static final long STREAM_ROSTER = 1, STREAM_PLACEMENT = 2, STREAM_ZONE = 3, STREAM_LOOT = 4, STREAM_PLAYER = 1L << 32;
+    // World loot pool size: one item per player, but at least this many
+    private static final int MIN_LOOT_ITEMS = 64;
+    private long seed;
+    private EventLog log = new EventLog(GameConfig.DEFAULT_LOG_CAPACITY);
+    private GameListener[] listeners = new GameListener[0];
+    // Set when output is enabled: all text goes through it, in order with the events
+    private ConsoleListener console;
+    // All human input goes through here (console by default, or a recorder/replay)
+    private final GameInput input;
+    // Humans playing from elsewhere (GameServer seats) read their moves from their own input, by slot
+    private GameInput[] seats = new GameInput[0];
+    private final GameOutput out;
+    private final boolean interactive;
+    private Runnable afterRound;
+    private boolean hasHumans;
     private int round = 0;
     private int difficulty = 1;
+    private double lootChance = GameConfig.DEFAULT_LOOT_CHANCE;
+    // World loot (GameConfig.setWorldLoot): items on the map instead of loot rolls, spawned from lootRandom
+    private boolean worldLoot;
+    private WorldLoot loot;
+    private RandomSource lootRandom;
+    // Zone shape and shrink schedule come from here; the zone itself is built at placement
+    private GameConfig zoneConfig = new GameConfig();
+    private Zone zone;
+    private MoveStrategy strategy;
+    // Same seed (and inputs) must give the same match: no wall-clock limits in the AI
+    private boolean reproducible;
+    private InfluenceMap influence;
+    // Region rounds (GameConfig.setRegionSize); no ticker means the classic sequential round
+    private int regionSize;
+    private RegionTicker regionTicker;
+    private ForkJoinPool tickPool = ForkJoinPool.commonPool();
+    // Optional instrumentation; lapStart is when the phase being timed began
+    private EngineMetrics metrics;
+    private long lapStart;
+    private final IntConsumer zoneDeath = this::killedByZone;
+    private final Brawl brawl = new Brawl();
+    // Periodic snapshots (setCheckpoint)
+    private MatchSnapshot checkpoints;
+    private Path checkpointFile;
+    private int checkpointEvery;
+
+    // Interactive console game
+    public GameEngine() {
+        this(GameOutput.CONSOLE, GameInput.console(), System.nanoTime());
+        reproducible = false;
+    }
+
+    // Interactive game with explicit input and seed; the same seed and inputs replay the same match
+    public GameEngine(GameOutput out, GameInput input, long seed) {
+        this.out = attachConsole(out);
+        this.input = input;
+        this.interactive = true;
+        this.reproducible = true;
+        setSeed(seed);
+    }
+
+    // Headless engine: no prompts, all output goes to the given sink (GameOutput.NONE for none at all)
+    public GameEngine(GameOutput out) {
+        this.out = attachConsole(out);
+        this.input = null;
+        this.interactive = false;
+        setSeed(System.nanoTime());
+    }
 
-    public int getAliveCount() { return (int) players.stream().filter(Player::isAlive).count(); }
+    // Enabled output is written by a ConsoleListener, so printing never waits for the terminal
+    private GameOutput attachConsole(GameOutput target) {
+        addListener(log);
+        if (!target.isEnabled()) return target;
+        console = new ConsoleListener(target);
+        addListener(console);
+        return console;
+    }
+
+    // --- Listeners ---
+    public void addListener(GameListener l) {
+        GameListener[] a = Arrays.copyOf(listeners, listeners.length + 1);
+        a[a.length - 1] = l;
+        listeners = a;
+    }
+
+    public void removeListener(GameListener l) {
+        for (int i = 0; i < listeners.length; i++) {
+            if (listeners[i] != l) continue;
+            GameListener[] a = new GameListener[listeners.length - 1];
+            System.arraycopy(listeners, 0, a, 0, i);
+            System.arraycopy(listeners, i + 1, a, i, a.length - i);
+            listeners = a;
+            return;
+        }
+    }
+
+    private void setSeed(long seed) {
+        this.seed = seed;
+        this.roster = new RandomSource(seed, STREAM_ROSTER);
+        this.placement = new RandomSource(seed, STREAM_PLACEMENT);
+    }
+
+    public long getSeed() { return seed; }
+
+    // Counters and phase timings for this engine's matches (null to stop recording)
+    public void setMetrics(EngineMetrics metrics) {
+        if (this.metrics != null) removeListener(this.metrics);
+        this.metrics = metrics;
+        if (metrics != null) addListener(metrics);
+    }
+
+    public EngineMetrics getMetrics() { return metrics; }
+
+    // Saves a snapshot to file every `everyRounds` rounds, replacing the previous one (null to stop).
+    // MatchSnapshot.load carries the match on from the last one.
+    public void setCheckpoint(Path file, int everyRounds) {
+        if (file != null && everyRounds < 1) throw new IllegalArgumentException("Checkpoint interval must be positive");
+        checkpointFile = file;
+        checkpointEvery = everyRounds;
+        if (file != null && checkpoints == null) checkpoints = new MatchSnapshot();
+    }
+
+    // Pool for region rounds (the common pool by default); the match is the same on any pool
+    public void setTickPool(ForkJoinPool pool) {
+        tickPool = pool;
+        if (regionTicker != null) regionTicker.setPool(pool);
+    }
+
+    // Called at the end of every round (used by replay stepping)
+    void setAfterRound(Runnable afterRound) { this.afterRound = afterRound; }
+
+    public int getAliveCount() { return store.aliveCount(); }
 
     // --- Setup Methods (FIXED LOGIC) ---
     public void setupGame() {
-        System.out.println("=== Battle Royale (Console) ===");
+        out.println("=== Battle Royale (Console) ===");
         int numHuman = askInt("Number of human players (1-4): ", 1, 4);
         int numAI = askInt("Number of AI players (1-8): ", 1, 8);
         difficulty = askInt("Difficulty (1=Easy,2=Med,3=Hard): ", 1, 3);
 
-        // Character and Tool TEMPLATES are created here. We use them for cloning, not removing.
-        List<Character> characterTemplates = createCharacters(); 
-        List<Tool> toolTemplates = createTools();
 
         // Human players
         for (int i = 0; i < numHuman; i++) {
-            System.out.println("\n--- Human Player " + (i+1) + " ---");
-            System.out.print("Enter name: ");
-            String name = scanner.nextLine().trim();
+            out.println("\n--- Human Player " + (i+1) + " ---");
+            out.print("Enter name: ");
+            String name = readLine().trim();
             if (name.isEmpty()) name = "Player" + (i+1);
 
-            // 1. Human chooses a type, we clone a new instance for them
-            Character chosenTemplate = chooseCharacter(characterTemplates);
-            Character playerCharacter = cloneCharacter(chosenTemplate.getClassName()); // Clone new object
+            // Classes and tools are shared registry entries; the player only records their ids
+            Character character = chooseCharacter();
+            ToolType tool = chooseTool();
+            players.add(new Player(store, name, true, character, tool));
+        }
 
-            Tool chosenTool = chooseTool(toolTemplates);
-            Tool playerTool = cloneToolByName(chosenTool.getName());
+        // AI players
+        for (int i = 0; i < numAI; i++) addRandomAI("AI-" + (i+1));
 
-            players.add(new Player(name, true, playerCharacter, playerTool));
+        placePlayers();
+        out.println("\nSetup complete. Players:\n");
+        players.forEach(p -> out.println(p.toString()));
+    }
+
+    // Builds an AI-only match from a config, without any prompts
+    public void setupGame(GameConfig config) {
+        createPlayers(config);
+        placePlayers();
+        if (out.isEnabled()) {
+            out.println("\nSetup complete. Players:\n");
+            players.forEach(p -> out.println(p.toString()));
         }
+    }
 
-        // AI players (The fix for the crash is here)
-        for (int i = 0; i < numAI; i++) {
-            String name = "AI-" + (i+1);
-            
-            // 1. Choose a random character TEMPLATE from the full list
-            Character template = characterTemplates.get(rnd.nextInt(characterTemplates.size()));
-            
-            // 2. Clone a fresh instance of that character type for the AI
-            Character playerCharacter = cloneCharacter(template.getClassName());
-            
-            // 3. Choose a random tool
-            Tool t = toolTemplates.get(rnd.nextInt(toolTemplates.size()));
-            Tool playerTool = cloneToolByName(t.getName());
-            
-            // 4. Add the new player
-            players.add(new Player(name, false, playerCharacter, playerTool));
+    // Applies the config and creates the AI players, without placing them yet
+    void createPlayers(GameConfig config) {
+        applyConfig(config);
+        if (config.getNumAI() > (long) mapSize * mapSize) {
+            throw new IllegalArgumentException("Too many players for a " + mapSize + "x" + mapSize + " map");
         }
 
-        placePlayers();
-        System.out.println("\nSetup complete. Players:\n");
-        players.forEach(p -> System.out.println(p));
+        for (int i = 0; i < config.getNumAI(); i++) addRandomAI("AI-" + (i+1));
     }
 
-    // NEW HELPER METHOD TO CLONE CHARACTERS
-    private Character cloneCharacter(String className) {
-        switch (className) {
-            case "Balanced": return new BalancedCharacter("AI-Balanced");
-            case "Speed": return new SpeedCharacter("AI-Speed");
-            case "Damage": return new DamageCharacter("AI-Damage");
-            default: return new BalancedCharacter("AI-Fallback");
+    // Everything a config sets except the players
+    private void applyConfig(GameConfig config) {
+        if (config.hasSeed()) setSeed(config.getSeed());
+        reproducible = config.hasSeed();
+        content = config.getContent();
+        store = new PlayerStore(content, config.getNumAI());
+        difficulty = config.getDifficulty();
+        strategy = config.getMoveStrategy();
+        lootChance = config.getLootChance();
+        worldLoot = config.isWorldLoot();
+        zoneConfig = config;
+        regionSize = config.getRegionSize();
+        if (regionSize > 0 && config.isSpeedScaledTurns()) {
+            throw new IllegalArgumentException("Region rounds move everyone once per round; speed-scaled turns don't apply");
         }
+        removeListener(log);
+        log = config.getLogSpillFile() != null
+            ? new EventLog(config.getLogCapacity(), config.getLogSpillFile())
+            : new EventLog(config.getLogCapacity());
+        addListener(log);
+        speedScaledTurns = config.isSpeedScaledTurns();
+        renderer = MapRenderer.create(config.isAnsiRendering(), config.getViewSize(), config.isMinimap());
+        mapSize = config.getMapSize();
+    }
+
+    // A human whose moves come from `seat` rather than the engine's input. Between createPlayers
+    // and placePlayers.
+    Player addHuman(String name, int charId, int toolId, GameInput seat) {
+        if (index != null) throw new IllegalStateException("Players are already placed");
+        if (players.size() >= (long) mapSize * mapSize) throw new IllegalArgumentException("No room left on a " + mapSize + "x" + mapSize + " map");
+        Player p = new Player(store, name, true, charId, toolId, 1);
+        players.add(p);
+        if (seats.length <= p.getSlot()) seats = Arrays.copyOf(seats, Math.max(p.getSlot() + 1, seats.length * 2));
+        seats[p.getSlot()] = seat;
+        return p;
+    }
+
+    // Random class, then random tool at level 1
+    private void addRandomAI(String name) {
+        int charId = roster.nextInt(content.characterCount());
+        int toolId = roster.nextInt(content.toolCount());
+        players.add(new Player(store, name, false, charId, toolId, 1));
+    }
+
+    // Runs a complete AI-only match and returns the winner (null if everyone died)
+    public Player runMatch(GameConfig config) {
+        setupGame(config);
+        startGame();
+        return getWinner();
+    }
+
+    public Player getWinner() {
+        return store.aliveCount() == 1 ? players.get(store.aliveAt(0)) : null;
     }
+    public int getRound() { return round; }
 
     private int askInt(String prompt, int min, int max) {
         int v = -1;
         while (v < min || v > max) {
-            System.out.print(prompt);
-            String line = scanner.nextLine();
+            out.print(prompt);
+            String line = readLine();
             if (line.isEmpty()) {continue;}
             try { v = Integer.parseInt(line.trim()); }
-            catch (Exception e) { System.out.println("Invalid number"); }
+            catch (Exception e) { out.println("Invalid number"); }
         }
         return v;
     }
 
-    private List<Character> createCharacters() {
-        List<Character> list = new ArrayList<>();
-        list.add(new BalancedCharacter("Bal-1"));
-        list.add(new SpeedCharacter("Spd-1"));
-        list.add(new DamageCharacter("Dmg-1"));
-
-        return list;
+    private Character chooseCharacter() {
+        out.println("Choose a character:");
+        for (int i = 0; i < content.characterCount(); i++) {
+            Character c = content.character(i);
+            out.printf("[%d] %s (Atk:%d Def:%d Spd:%d HP:%d)\n", i+1, c.getClassName(), c.baseAttack, c.baseDefense, c.baseSpeed, c.baseHealth);
+        }
+        int choice = askInt("Select (number): ", 1, content.characterCount());
+        return content.character(choice-1);
     }
 
-    private List<Tool> createTools() {
-        List<Tool> t = new ArrayList<>();
-        t.add(new MeleeWeapon("Sword"));
-        t.add(new RangedWeapon("Bow"));
-        t.add(new DefenseTool("Shield"));
-        return t;
+    private ToolType chooseTool() {
+        out.println("Choose starting tool (all Lvl1):");
+        for (int i = 0; i < content.toolCount(); i++) {
+            ToolType t = content.tool(i);
+            out.printf("[%d] %s (%s)\n", i+1, t.getName(), t.getKind().getLabel());
+        }
+        int choice = askInt("Select (number): ", 1, content.toolCount());
+        return content.tool(choice-1);
     }
 
-    private Character chooseCharacter(List<Character> candidates) {
-        System.out.println("Choose a character:");
-        for (int i = 0; i < candidates.size(); i++) {
-            Character c = candidates.get(i);
-            System.out.printf("[%d] %s (Atk:%d Def:%d Spd:%d HP:%d)\n", i+1, c.getClassName(), c.baseAttack, c.baseDefense, c.baseSpeed, c.baseHealth);
+    // Robert Floyd's sampling: exactly one draw per player however full the map is, with the
+    // spatial index as the occupancy set (no per-try allocation, no rejection loop)
+    void placePlayers() {
+        int n = players.size();
+        SpatialIndex.Partitioned regions = createIndex();
+
+        // Visit players in random order so the late-draw bias of Floyd's method isn't tied to list order
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) order[i] = i;
+        for (int i = n - 1; i > 0; i--) {
+            int j = placement.nextInt(i + 1);
+            int t = order[i]; order[i] = order[j]; order[j] = t;
         }
-        int choice = askInt("Select (number): ", 1, candidates.size());
-        return candidates.get(choice-1);
-    }
 
-    private Tool chooseTool(List<Tool> available) {
-        System.out.println("Choose starting tool (all Lvl1):");
-        for (int i = 0; i < available.size(); i++) {
-            Tool t = available.get(i);
-            System.out.printf("[%d] %s (%s)\n", i+1, t.getName(), t.getType());
+        int cells = mapSize * mapSize;
+        for (int k = 0; k < n; k++) {
+            int j = cells - n + k;
+            int cell = placement.nextInt(j + 1);
+            if (index.first(cell % mapSize, cell / mapSize) != SpatialIndex.NONE) cell = j;
+
+            Player p = players.get(order[k]);
+            p.attach(index);
+            int x = cell % mapSize, y = cell / mapSize;
+            p.assignPos(x, y);
+            for (GameListener l : listeners) l.onPlaced(p, x, y);
         }
-        int choice = askInt("Select (number): ", 1, available.size());
-        return available.get(choice-1);
+        scheduler = TurnScheduler.create(store, speedScaledTurns);
+        prepareRounds(regions, 0);
     }
 
-    private Tool cloneToolByName(String name) {
-        switch (name) {
-            case "Sword": return new MeleeWeapon("Sword");
-            case "Bow": return new RangedWeapon("Bow");
-            case "Shield": return new DefenseTool("Shield");
-            default: return new MeleeWeapon("Fist");
-        }
+    // The (empty) spatial index and the players' random streams; returns the index if it is partitioned
+    private SpatialIndex.Partitioned createIndex() {
+        int n = players.size();
+        SpatialIndex.Partitioned regions = regionSize > 0 ? SpatialIndex.partitioned(mapSize, n, regionSize) : null;
+        index = regions != null ? regions : SpatialIndex.create(mapSize, n);
+        playerRandom = new RandomSource[n];
+        for (int i = 0; i < n; i++) playerRandom[i] = new RandomSource(seed, STREAM_PLAYER + i);
+        hasHumans = players.stream().anyMatch(Player::isHuman);
+        return regions;
     }
 
-    private void placePlayers() {
-        Set<String> used = new HashSet<>();
-        for (Player p : players) {
-            int x, y;
-            do { x = rnd.nextInt(MAP_SIZE); y = rnd.nextInt(MAP_SIZE); } while (used.contains(x+","+y));
-            used.add(x+","+y);
-            p.assignPos(x, y);
-            log(String.format("Placed %s at (%d,%d)", p.getName(), x, y));
+    // Strategy, zone, influence field and region ticker, once everyone is on the map
+    private void prepareRounds(SpatialIndex.Partitioned regions, int zoneStep) {
+        if (strategy == null) strategy = MoveStrategy.forDifficulty(difficulty, reproducible);
+        zone = zoneConfig.createZone(mapSize, new RandomSource(seed, STREAM_ZONE));
+        zone.restoreStep(zoneStep);
+        influence = new InfluenceMap(mapSize, zone);
+        if (worldLoot) {
+            loot = new WorldLoot(mapSize, Math.max(MIN_LOOT_ITEMS, players.size()));
+            lootRandom = new RandomSource(seed, STREAM_LOOT);
+            influence.setLoot(loot);
+        }
+        influence.update(store, index, round, strategy.layers());
+        if (regions != null) {
+            regionTicker = new RegionTicker(store, regions, zone, strategy, influence, playerRandom, lootChance, worldLoot);
+            regionTicker.setPool(tickPool);
         }
     }
 
     // --- Game Loop Methods ---
     public void startGame() {
-        while (getAliveCount() > 1) {
-            round++;
-            System.out.println("\n========================");
-            System.out.println(" Round " + round + " | Map area: 0.." + mapLimit);
-            System.out.println("========================");
-
-            if (round % 3 == 0) shrinkMap();
-
-            drawMapSimple();
-
-            // order by speed
-            List<Player> turnOrder = players.stream()
-                .filter(Player::isAlive)
-                .sorted((a,b) -> Integer.compare(b.getTotalSpeed(), a.getTotalSpeed()))
-                .collect(Collectors.toList());
-
-            for (Player p : turnOrder) {
-                if (!p.isAlive()) continue;
-                System.out.println("\n-- " + p.getName() + "'s turn --");
-                System.out.println(p);
-
-                int[] newPos = (p.isHuman()) ? humanMove(p) : aiMove(p);
-                p.moveTo(newPos[0], newPos[1]);
-                log(p.getName() + " moved to (" + newPos[0] + "," + newPos[1] + ")");
-
-                // encounter check
-                Player other = players.stream()
-                    .filter(o -> o.isAlive() && o != p && o.getX() == p.getX() && o.getY() == p.getY())
-                    .findFirst().orElse(null);
-
-                if (other != null) {
-                    System.out.println("Battle! " + p.getName() + " vs " + other.getName());
-                    resolveBattle(p, other);
-                    if (getAliveCount() <= 1) break;
-                } else {
-                    // chance to find loot (5% chance)
-                    if (rnd.nextDouble() < 0.05) {
-                        Tool loot = getLoot();
-                        System.out.println(p.getName() + " found loot: " + loot.getName() + " (L" + loot.getLevel() + ")");
-                        if (loot.getLevel() > p.getWeapon().getLevel()) {
-                            p.equipWeapon(loot);
-                            System.out.println("Equipped new weapon.");
-                            log(p.getName() + " equipped " + loot.getName() + " L" + loot.getLevel());
-                        } else {
-                            System.out.println("Loot ignored (worse than current).");
-                        }
-                    }
-                }
+        while (getAliveCount() > 1) playRound();
+        endGame();
+    }
+
+    // One full round: shrink, draw, every scheduled turn, status
+    void playRound() {
+        long roundStart = metrics != null ? System.nanoTime() : 0;
+        lapStart = roundStart;
+        round++;
+        for (GameListener l : listeners) l.onRoundStart(round, zone);
+
+        if (zone.shrinksAt(round)) {
+            shrinkMap();
+            lap(EngineMetrics.SHRINK);
+        }
+        if (loot != null) {
+            spawnLoot();
+            lap(EngineMetrics.LOOT);
+        }
+
+        if (out.isEnabled()) {
+            renderer.render(this, out);
+            lap(EngineMetrics.RENDER);
+        }
+
+        // One shared field for every AI decision this round
+        influence.update(store, index, round, strategy.layers());
+        lap(EngineMetrics.FIELD);
+
+        if (regionTicker != null) {
+            playRegions();
+        } else {
+            // order by speed, straight from the scheduler's queues
+            scheduler.beginRound();
+            lap(EngineMetrics.TURN_ORDER);
+            for (int s = scheduler.nextTurn(); s != TurnScheduler.NONE; s = scheduler.nextTurn()) {
+                Player p = players.get(s);
+                for (GameListener l : listeners) l.onTurn(p);
+
+                int dir = p.isHuman() ? humanMove(p) : aiMove(p);
+                int nx = p.getX() + MoveStrategy.dx(dir), ny = p.getY() + MoveStrategy.dy(dir);
+                // Steps out of the zone's allowed area are refused (for the square: clamped)
+                if (!zone.allows(zone.getStep(), nx, ny)) { nx = p.getX(); ny = p.getY(); }
+                p.moveTo(nx, ny);
+                for (GameListener l : listeners) l.onMoved(p, nx, ny);
+                lap(EngineMetrics.MOVE);
+
+                encounter(p);
+                if (getAliveCount() <= 1) break;
             }
+        }
 
+        if (out.isEnabled()) {
             displayStatus();
+            lap(EngineMetrics.RENDER);
+        }
+        for (GameListener l : listeners) l.onRoundEnd(round, getAliveCount());
+        if (metrics != null) metrics.record(EngineMetrics.ROUND, System.nanoTime() - roundStart);
+        if (checkpointFile != null && round % checkpointEvery == 0) checkpoint();
 
-            if (players.stream().anyMatch(Player::isHuman) && getAliveCount() > 1) {
-                System.out.print("Press Enter to continue...");
-                scanner.nextLine();
-            }
+        if (interactive && hasHumans && getAliveCount() > 1) {
+            out.print("Press Enter to continue...");
+            readLine();
         }
+        if (afterRound != null) {
+            flushOutput();
+            afterRound.run();
+        }
+    }
 
-        endGame();
+    private void checkpoint() {
+        try {
+            checkpoints.save(this, checkpointFile);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 
-    private void drawMapSimple() {
-        char[][] grid = new char[MAP_SIZE][MAP_SIZE];
-        for (int y = 0; y < MAP_SIZE; y++) for (int x = 0; x < MAP_SIZE; x++) grid[y][x] = ' ';
+    // Fights whoever is on p's tile (a Brawl when p finds two or more there), or rolls for loot
+    // when there is nobody
+    private void encounter(Player p) {
+        if (brawl.gather(store, index, p.getX(), p.getY())) {
+            lap(EngineMetrics.ENCOUNTER);
+            resolveBrawl();
+            lap(EngineMetrics.BATTLE);
+            return;
+        }
+        Player other = opponentAt(p);
+        if (other != null) {
+            lap(EngineMetrics.ENCOUNTER);
+            resolveBattle(p, other);
+            lap(EngineMetrics.BATTLE);
+            return;
+        }
+        if (loot != null) {
+            pickUp(p);
+            lap(EngineMetrics.ENCOUNTER);
+            return;
+        }
+        // chance to find loot (5% by default)
+        if (metrics != null) metrics.countLootRolls(1);
+        RandomSource r = playerRandom[p.getSlot()];
+        if (r.nextDouble() < lootChance) {
+            // Loot is just (tool type, level); nothing is allocated
+            looted(p, content.tool(r.nextInt(content.toolCount())), r.nextInt(4) + 2); // Level 2 to 5
+        }
+        lap(EngineMetrics.ENCOUNTER);
+    }
 
-        // Mark players (only alive)
-        for (Player p : players) {
-            if (!p.isAlive()) continue;
-            int x = p.getX(); int y = p.getY();
-            // Check if player is within the current map limits
-            if (x < 0 || y < 0 || x > mapLimit || y > mapLimit) {
-                grid[y][x] = '*'; // Mark out-of-bounds area briefly
-                continue;
-            } 
-            
-            // use single-letter token: H/A
-            char token = p.isHuman() ? 'H' : 'A';
-            
-            // if multiple at same tile, mark 'M'
-            if (grid[y][x] == ' ' ) grid[y][x] = token;
-            else grid[y][x] = 'M';
-        }
-
-        // Fill empty spots and OOB spots with a visual marker
-        for (int y = 0; y < MAP_SIZE; y++) {
-            for (int x = 0; x < MAP_SIZE; x++) {
-                if (grid[y][x] == ' ') {
-                    if (x > mapLimit || y > mapLimit) {
-                        grid[y][x] = 'X'; // Out-of-bounds
-                    } else {
-                        grid[y][x] = '.'; // In-bounds empty
-                    }
+    // Ends the lap of a phase (nothing without metrics)
+    private void lap(int phase) {
+        if (metrics != null) lapStart = metrics.lap(phase, lapStart);
+    }
+
+    // World loot: takes the best item on p's tile if it beats p's weapon, leaving the weapon in its place
+    private void pickUp(Player p) {
+        int item = loot.bestAt(p.getX(), p.getY());
+        if (item == WorldLoot.NONE || loot.level(item) <= p.getWeaponLevel()) return;
+        ToolType found = content.tool(loot.tool(item));
+        int level = loot.level(item);
+        loot.swap(item, p.getWeaponType().getId(), p.getWeaponLevel());
+        looted(p, found, level);
+    }
+
+    // World loot: new items on random allowed tiles, lootChance per living player (rounded up) as
+    // long as the pool has room. Draws are the same whether or not a tile is taken.
+    private void spawnLoot() {
+        int step = zone.getStep(), extent = zone.extent(step);
+        int x0 = Math.max(0, zone.centreX(step) - extent), x1 = Math.min(mapSize - 1, zone.centreX(step) + extent);
+        int y0 = Math.max(0, zone.centreY(step) - extent), y1 = Math.min(mapSize - 1, zone.centreY(step) + extent);
+        RandomSource r = lootRandom;
+        for (int n = (int) Math.ceil(getAliveCount() * lootChance); n > 0 && !loot.isFull(); n--) {
+            int x = x0 + r.nextInt(x1 - x0 + 1), y = y0 + r.nextInt(y1 - y0 + 1);
+            int toolId = r.nextInt(content.toolCount()), level = r.nextInt(4) + 2; // Level 2 to 5
+            if (zone.allows(step, x, y)) loot.place(toolId, level, x, y);
+        }
+    }
+
+    private void looted(Player p, ToolType loot, int lootLevel) {
+        boolean equip = lootLevel > p.getWeaponLevel();
+        if (equip) p.equipWeapon(loot, lootLevel);
+        for (GameListener l : listeners) l.onLooted(p, loot, lootLevel, equip);
+    }
+
+    // Region round: the ticker plays every region in parallel, then this merge commits what they
+    // did region by region and finally lands the players that crossed into another region
+    private void playRegions() {
+        RegionTicker t = regionTicker;
+        t.tick();
+        if (metrics != null) metrics.countLootRolls(t.lootRolls());
+        lap(EngineMetrics.REGIONS);
+        for (int r = 0; r < t.regionCount(); r++) {
+            int[] e = t.events(r);
+            for (int i = 0, n = t.eventCount(r); i < n; i += RegionTicker.RECORD) {
+                Player p = players.get(e[i + 1]);
+                switch (e[i]) {
+                    case RegionTicker.MOVED:
+                        for (GameListener l : listeners) l.onTurn(p);
+                        for (GameListener l : listeners) l.onMoved(p, p.getX(), p.getY());
+                        break;
+                    case RegionTicker.BATTLE:
+                        battleFought(p, players.get(e[i + 2]), e[i + 3], e[i + 4] != 0);
+                        break;
+                    case RegionTicker.PICKUP:
+                        if (store.hp[p.getSlot()] > 0) pickUp(p); // not if killed later in the region pass
+                        break;
+                    default:
+                        looted(p, content.tool(e[i + 2]), e[i + 3]);
                 }
             }
         }
-        
-        // print grid with (0,0) in bottom-left
-        System.out.println("Map (simple) - legend: H=Human A=AI M=Multiple .=empty X=Shrunk Zone");
-        for (int row = MAP_SIZE - 1; row >= 0; row--) {
-            System.out.printf("%2d ", row);
-            for (int col = 0; col < MAP_SIZE; col++) System.out.print(grid[row][col] + " ");
-            System.out.println();
-        }
-        // x axis labels
-        System.out.print("   ");
-        for (int col = 0; col < MAP_SIZE; col++) System.out.printf("%d ", col);
-        System.out.println();
-    }
-
-    private int[] humanMove(Player p) {
-        int x = p.getX(), y = p.getY();
-        List<String> opts = Arrays.asList("UP","DOWN","LEFT","RIGHT","STAY");
-        String choice = "";
-        while(true) {
-            System.out.print("Move (UP/DOWN/LEFT/RIGHT/STAY): ");
-            choice = scanner.nextLine().trim().toUpperCase();
-            if (opts.contains(choice)) break;
-            System.out.println("Invalid move.");
-        }
-        int nx = x, ny = y;
-        switch(choice) {
-            case "UP": ny = y+1; break;
-            case "DOWN": ny = y-1; break;
-            case "LEFT": nx = x-1; break;
-            case "RIGHT": nx = x+1; break;
-            case "STAY": default: break;
-        }
-        
-        // Clamp to map boundaries
-        nx = Math.min(Math.max(nx, 0), mapLimit);
-        ny = Math.min(Math.max(ny, 0), mapLimit);
-        
-        return new int[]{nx, ny};
-    }
-
-    private int[] aiMove(Player p) {
-        int x = p.getX(), y = p.getY();
-        List<int[]> moves = new ArrayList<>();
-        moves.add(new int[]{x, y}); // stay
-        
-        // Potential moves, clamped to boundaries
-        moves.add(new int[]{Math.min(Math.max(x-1, 0), mapLimit), y});
-        moves.add(new int[]{Math.min(Math.max(x+1, 0), mapLimit), y});
-        moves.add(new int[]{x, Math.min(Math.max(y-1, 0), mapLimit)});
-        moves.add(new int[]{x, Math.min(Math.max(y+1, 0), mapLimit)});
-        
-        // prefer moves toward center (for simple AI)
-        int center = mapLimit / 2;
-        moves.sort(Comparator.comparingInt(m -> Math.abs(m[0]-center)+Math.abs(m[1]-center)));
-        
-        // choose among top 3
-        int choice = rnd.nextInt(Math.min(3, moves.size()));
-        return moves.get(choice);
-    }
-
-    private void resolveBattle(Player a, Player b) {
-        // [Damage that A deals to B]
-        int aBase = a.getWeapon().getCurrentDamage() + a.getTotalAttack();
-        int aTaken = 0; 
-        if (a.getWeapon() instanceof MeleeWeapon) {
-            aTaken = Math.max(1, aBase - b.getTotalDefense());
-        } else if (a.getWeapon() instanceof RangedWeapon) {
-            aTaken = Math.max(1, aBase - b.getRangedReduction());
-        } else { 
-            aTaken = 1; // Defense tool deals minimal damage
-        }
-
-        // [Damage that B deals to A]
-        int bBase = b.getWeapon().getCurrentDamage() + b.getTotalAttack();
-        int bTaken = 0;
-        if (b.getWeapon() instanceof MeleeWeapon) {
-            bTaken = Math.max(1, bBase - a.getTotalDefense());
-        } else if (b.getWeapon() instanceof RangedWeapon) {
-            bTaken = Math.max(1, bBase - a.getRangedReduction());
-        } else {
-            bTaken = 1;
+        lap(EngineMetrics.MERGE);
+        for (int r = 0; r < t.regionCount(); r++) {
+            int[] m = t.migrants(r);
+            for (int i = 0, n = t.migrantCount(r); i < n; i++) {
+                Player p = players.get(m[i]);
+                index.add(m[i], p.getX(), p.getY());
+                for (GameListener l : listeners) l.onTurn(p);
+                for (GameListener l : listeners) l.onMoved(p, p.getX(), p.getY());
+                lap(EngineMetrics.MOVE);
+                encounter(p);
+            }
         }
+    }
+
+    // Commits a fight whose damage is already dealt (by a region or a brawl); killed means this
+    // fight gets the loser's death
+    private void battleFought(Player a, Player b, int outcome, boolean killed) {
+        Player winner = BattleTable.firstWins(outcome) ? a : b;
+        Player loser = winner == a ? b : a;
+        for (GameListener l : listeners) l.onBattle(a, b, winner, loser, BattleTable.damage(outcome));
+        if (killed) {
+            store.markDead(loser.getSlot());
+            for (GameListener l : listeners) l.onEliminated(winner, loser);
+            winner.levelUpWeapon();
+        }
+    }
 
-        Player winner, loser; int damage;
-        if (aTaken > bTaken) { winner = a; loser = b; damage = aTaken; }
-        else if (bTaken > aTaken) { winner = b; loser = a; damage = bTaken; }
-        else {
-            // Tie-breaker: higher weapon level wins
-            if (a.getWeapon().getLevel() > b.getWeapon().getLevel()) { winner=a; loser=b; damage=aTaken; }
-            else { winner=b; loser=a; damage=bTaken; }
+    // First other living player on p's tile, or null
+    Player opponentAt(Player p) {
+        for (int s = index.first(p.getX(), p.getY()); s != SpatialIndex.NONE; s = index.next(s)) {
+            if (s != p.getSlot()) return players.get(s);
         }
+        return null;
+    }
+
+    // Players currently standing on a tile
+    public List<Player> getPlayersAt(int x, int y) {
+        List<Player> found = new ArrayList<>();
+        if (index == null) return found;
+        for (int s = index.first(x, y); s != SpatialIndex.NONE; s = index.next(s)) found.add(players.get(s));
+        return found;
+    }
+
+    public int countPlayersAt(int x, int y) { return index == null ? 0 : index.countAt(x, y); }
+
+    // --- Renderer access ---
+    int getMapSize() { return mapSize; }
+    Zone getZone() { return zone; }
+    SpatialIndex getIndex() { return index; }
+    Player getPlayerAtSlot(int slot) { return players.get(slot); }
+
+    // The viewport follows the first living human, otherwise the middle of the safe area
+    int getFocusX() {
+        Player h = focusPlayer();
+        return h != null ? h.getX() : zone.centreX(zone.getStep());
+    }
+
+    int getFocusY() {
+        Player h = focusPlayer();
+        return h != null ? h.getY() : zone.centreY(zone.getStep());
+    }
+
+    private Player focusPlayer() {
+        if (!hasHumans) return null;
+        for (Player p : players) if (p.isHuman() && p.isAlive()) return p;
+        return null;
+    }
+
+    private int humanMove(Player p) {
+        GameInput seat = p.getSlot() < seats.length ? seats[p.getSlot()] : null;
+        while (true) {
+            out.print("Move (UP/DOWN/LEFT/RIGHT/STAY): ");
+            switch (readLine(seat != null ? seat : input).trim().toUpperCase()) {
+                case "UP": return MoveStrategy.UP;
+                case "DOWN": return MoveStrategy.DOWN;
+                case "LEFT": return MoveStrategy.LEFT;
+                case "RIGHT": return MoveStrategy.RIGHT;
+                case "STAY": return MoveStrategy.STAY;
+                default: out.println("Invalid move.");
+            }
+        }
+    }
+
+    // Direction code from the AI strategy (the engine clamps it to the map)
+    int aiMove(Player p) {
+        return strategy.chooseMove(influence, store, p.getSlot(), playerRandom[p.getSlot()]);
+    }
+
+    void resolveBattle(Player a, Player b) {
+        int outcome = store.getBattleTable().outcome(store, a.getSlot(), b.getSlot());
+
+        Player winner = BattleTable.firstWins(outcome) ? a : b;
+        Player loser = winner == a ? b : a;
+        int damage = BattleTable.damage(outcome);
 
         loser.takeDamage(damage);
-        System.out.printf("%s wins and deals %d damage to %s (HP left: %d)\n", winner.getName(), damage, loser.getName(), loser.getCurrentHealth());
-        log(String.format("%s beat %s for %d dmg", winner.getName(), loser.getName(), damage));
+        for (GameListener l : listeners) l.onBattle(a, b, winner, loser, damage);
 
         if (!loser.isAlive()) {
-            System.out.println(winner.getName() + " eliminated " + loser.getName());
+            for (GameListener l : listeners) l.onEliminated(winner, loser);
             winner.levelUpWeapon();
-            log(winner.getName() + " eliminated " + loser.getName() + " and leveled up.");
-        }
-    }
-
-    private Tool getLoot() {
-        Tool base = createTools().get(rnd.nextInt(3));
-        Tool t = cloneToolByName(base.getName());
-        int lvl = rnd.nextInt(4) + 2; // Level 2 to 5
-        for (int i=1;i<lvl;i++) t.levelUp();
-        return t;
-    }
-
-    private void shrinkMap() {
-        if (mapLimit > 3) {
-            mapLimit -= 1;
-            log("Map shrunk to 0.." + mapLimit);
-            System.out.println("*** MAP SHRINKS! New area 0.." + mapLimit + " ***");
-            
-            // Eliminate players outside the new boundary
-            List<Player> eliminatedByMap = players.stream()
-                .filter(Player::isAlive)
-                .filter(p -> p.getX() >= mapLimit || p.getY() >= mapLimit)
-                .collect(Collectors.toList());
-                
-            for (Player p : eliminatedByMap) {
-                // instant death by shrink
-                p.takeDamage(p.getCurrentHealth());
-                log(p.getName() + " died to shrink");
-                System.out.println("💀 " + p.getName() + " was eliminated by the shrinking map.");
-            }
         }
     }
 
+    // Deals a gathered brawl's damage, then commits its duels in ring order
+    private void resolveBrawl() {
+        Brawl b = brawl;
+        for (int i = 0; i < b.count; i++) players.get(b.slots[i]).takeDamage(b.damage[i]);
+        for (int d = 0; d < b.count; d++) {
+            battleFought(players.get(b.attacker(d)), players.get(b.defender(d)), b.outcomes[d], b.lethal(store, d));
+        }
+    }
+
+    void shrinkMap() {
+        if (!zone.isFinal()) {
+            zone.shrink();
+            for (GameListener l : listeners) l.onZoneShrunk(zone);
+
+            // Eliminate players outside the new boundary (walks only the tiles that were lost)
+            zone.forEachCaught(index, zoneDeath);
+            if (loot != null) loot.removeLost(zone);
+        }
+    }
+
+    private void killedByZone(int slot) {
+        Player p = players.get(slot);
+        // instant death by shrink
+        p.takeDamage(p.getCurrentHealth());
+        for (GameListener l : listeners) l.onZoneDeath(p);
+    }
+
     private void displayStatus() {
-        System.out.println("\n-- Status --");
-        players.stream().filter(Player::isAlive).forEach(p -> System.out.println(p));
-        System.out.println("Alive: " + getAliveCount());
+        out.println("\n-- Status --");
+        for (int i = 0; i < store.aliveCount(); i++) out.println(players.get(store.aliveAt(i)).toString());
+        out.println("Alive: " + getAliveCount());
     }
 
     private void endGame() {
-        Player winner = players.stream().filter(Player::isAlive).findFirst().orElse(null);
-        System.out.println("\n=== GAME OVER ===");
-        if (winner != null) System.out.println("Winner: " + winner.getName() + " -- " + winner);
-        else System.out.println("No winner (all dead)");
-
-        System.out.print("Print operations log? (Y/N): ");
-        String c = scanner.nextLine().trim();
+        Player winner = getWinner();
+        for (GameListener l : listeners) l.onMatchEnd(winner, round);
+        if (!out.isEnabled()) return;
+        renderer.finish(out);
+        out.println("\n=== GAME OVER ===");
+        if (winner != null) out.println("Winner: " + winner.getName() + " -- " + winner);
+        else out.println("No winner (all dead)");
+        if (metrics != null) out.print(metrics.report());
+
+        // Headless matches have nobody to ask
+        if (!interactive) {
+            console.close();
+            return;
+        }
+        out.print("Print operations log? (Y/N): ");
+        String c = readLine().trim();
         if (c.equalsIgnoreCase("Y")) {
-            System.out.println("-- Operations Log (Last 1000 entries) --");
-            log.forEach(System.out::println);
-            System.out.println("-- End of Log --");
+            out.println("-- Operations Log (Last " + log.capacity() + " entries) --");
+            dumpLog(out);
+            out.println("-- End of Log --");
+        }
+        console.close();
+        input.close();
+    }
+
+    // All input goes through here, so buffered output (the prompt) is on screen before we wait
+    private String readLine() { return readLine(input); }
+
+    private String readLine(GameInput from) {
+        if (from == null) throw new IllegalStateException("A human player has no input");
+        flushOutput();
+        return from.readLine();
+    }
+
+    private void flushOutput() {
+        if (console != null) console.flush();
+    }
+
+    // Formats the retained log entries; this is the only place log text is built
+    public void dumpLog(GameOutput to) {
+        log.dump(to, slot -> players.get(slot).getName(), id -> content.tool(id).getName());
+    }
+
+    // --- Snapshots (MatchSnapshot), taken between rounds ---
+    // Upper bound of what writeState writes
+    int stateBytes() {
+        int names = 0;
+        for (Player p : players) names += 2 + 2 * Math.min(p.getName().length(), MAX_NAME);
+        return 96 + 8 * zoneConfig.getShrinkPhaseCount() + names + players.size() * 17 + store.stateBytes()
+            + scheduler.stateBytes() + 4 * store.aliveCount() + log.stateBytes() + (loot != null ? 8 + loot.stateBytes() : 0);
+    }
+
+    void writeState(ByteBuffer buf) {
+        if (zone == null) throw new IllegalStateException("The match has not been set up");
+        buf.putLong(seed).put((byte) (reproducible ? 1 : 0)).putInt(mapSize).put((byte) difficulty).putDouble(lootChance)
+           .put((byte) (speedScaledTurns ? 1 : 0)).putInt(regionSize).put((byte) zoneConfig.getZoneShape().ordinal())
+           .put((byte) (worldLoot ? 1 : 0));
+        buf.putInt(zoneConfig.getShrinkPhaseCount());
+        for (int i = 0; i < zoneConfig.getShrinkPhaseCount(); i++) {
+            buf.putInt(zoneConfig.getShrinkPhaseStart(i)).putInt(zoneConfig.getShrinkPhaseInterval(i));
+        }
+        buf.putInt(zone.getStep()).putInt(round).putInt(content.characterCount()).putInt(content.toolCount());
+
+        store.writeState(buf);
+        for (Player p : players) {
+            buf.putInt(p.getId()).put((byte) (p.isHuman() ? 1 : 0));
+            putName(buf, p.getName());
+        }
+        buf.putLong(roster.state()).putLong(placement.state());
+        for (RandomSource r : playerRandom) buf.putLong(r.state());
+        scheduler.writeState(buf);
+
+        // Tile lists head first: who a newcomer fights depends on it
+        buf.putInt(store.aliveCount());
+        for (int i = 0; i < store.aliveCount(); i++) {
+            int s = store.aliveAt(i);
+            if (index.first(store.x[s], store.y[s]) != s) continue;
+            for (int t = s; t != SpatialIndex.NONE; t = index.next(t)) buf.putInt(t);
+        }
+        log.writeState(buf);
+        if (loot != null) {
+            buf.putLong(lootRandom.state());
+            loot.writeState(buf);
+        }
+    }
+
+    // Into a fresh engine. settings supplies what a snapshot doesn't hold: content (it must be the
+    // same), the AI strategy (from the difficulty unless set), the log and rendering options.
+    // Malformed data throws a RuntimeException, which MatchSnapshot reports as a corrupt file.
+    void readState(ByteBuffer buf, GameConfig settings) throws IOException {
+        if (!players.isEmpty()) throw new IllegalStateException("Snapshots restore into a fresh engine");
+        GameConfig config = new GameConfig().setSeed(buf.getLong());
+        boolean wasReproducible = buf.get() != 0;
+        config.setMapSize(buf.getInt())
+              .setDifficulty(buf.get())
+              .setLootChance(buf.getDouble())
+              .setSpeedScaledTurns(buf.get() != 0)
+              .setRegionSize(buf.getInt())
+              .setZoneShape(Zone.Shape.values()[buf.get()])
+              .setWorldLoot(buf.get() != 0);
+        int phases = buf.getInt();
+        buf.getInt(); // phase 0 starts at round 1
+        config.setShrinkInterval(buf.getInt());
+        for (int i = 1; i < phases; i++) config.addShrinkPhase(buf.getInt(), buf.getInt());
+        config.setLogCapacity(settings.getLogCapacity())
+              .setLogSpillFile(settings.getLogSpillFile())
+              .setAnsiRendering(settings.isAnsiRendering())
+              .setMinimap(settings.isMinimap())
+              .setViewSize(settings.getViewSize())
+              .setContent(settings.getContent())
+              .setMoveStrategy(settings.getMoveStrategy());
+        int zoneStep = buf.getInt();
+        round = buf.getInt();
+        applyConfig(config);
+        reproducible = wasReproducible;
+        if (buf.getInt() != content.characterCount() || buf.getInt() != content.toolCount()) {
+            throw new IOException("The snapshot was taken with different content");
+        }
+
+        store = PlayerStore.readState(content, buf);
+        for (int s = 0; s < store.size(); s++) {
+            int id = buf.getInt();
+            boolean human = buf.get() != 0;
+            players.add(new Player(store, s, id, getName(buf), human));
+        }
+        SpatialIndex.Partitioned regions = createIndex();
+        if (hasHumans && !interactive) throw new IOException("The match has human players; restore it with their input");
+        roster.reseed(buf.getLong());
+        placement.reseed(buf.getLong());
+        for (RandomSource r : playerRandom) r.reseed(buf.getLong());
+        scheduler = TurnScheduler.readState(store, speedScaledTurns, buf);
+
+        int[] order = new int[buf.getInt()];
+        if (order.length != store.aliveCount()) throw new IllegalArgumentException("Tile lists hold " + order.length + " players");
+        for (int i = 0; i < order.length; i++) {
+            int s = order[i] = buf.getInt();
+            boolean onMap = s >= 0 && s < store.size() && store.x[s] >= 0 && store.y[s] >= 0
+                            && store.x[s] < mapSize && store.y[s] < mapSize;
+            if (!onMap || !store.isAlive(s)) {
+                throw new IllegalArgumentException("Bad slot " + s + " in tile lists");
+            }
+        }
+        for (Player p : players) p.attach(index);
+        // add() puts a slot at the head of its tile, so each list is rebuilt from its tail
+        for (int i = order.length - 1; i >= 0; i--) index.add(order[i], store.x[order[i]], store.y[order[i]]);
+        log.readState(buf);
+        prepareRounds(regions, zoneStep);
+        if (loot != null) {
+            lootRandom.reseed(buf.getLong());
+            loot.readState(buf, content.toolCount());
         }
-        
-        // Important: close the scanner to prevent resource leaks
-        scanner.close(); 
     }
 
-    private void log(String s) {
-        logAdd(String.format("R%d: %s", round, s));
+    // Length, then a byte per char when they all fit (AI names always do), else two; the top bit
+    // of the length tells which
+    private static final int MAX_NAME = 0x7FFF, WIDE = 0x8000;
+
+    private static void putName(ByteBuffer buf, String name) {
+        int n = Math.min(name.length(), MAX_NAME);
+        boolean wide = false;
+        for (int i = 0; i < n && !wide; i++) wide = name.charAt(i) > 0xFF;
+        buf.putShort((short) (wide ? n | WIDE : n));
+        for (int i = 0; i < n; i++) {
+            if (wide) buf.putChar(name.charAt(i));
+            else buf.put((byte) name.charAt(i));
+        }
     }
 
-    private void logAdd(String s) {
-        log.add(s);
-        // Keep log size managed
-        if (log.size() > 1000) log.remove(0); 
+    private static String getName(ByteBuffer buf) {
+        int len = buf.getShort() & 0xFFFF;
+        char[] name = new char[len & MAX_NAME];
+        for (int i = 0; i < name.length; i++) name[i] = (len & WIDE) != 0 ? buf.getChar() : (char) (buf.get() & 0xFF);
+        return new String(name);
     }
+
+    public EventLog getLog() { return log; }
+    public ContentRegistry getContent() { return content; }
 }
\ No newline at end of file
@@ -0,0 +1,29 @@
+package game;
+
+import java.util.Scanner;
+
+// Source of the lines the engine reads from a human (setup answers, moves, "press Enter").
+// Swapping it out is what makes matches recordable and replayable.
+
+public interface GameInput {
+    String readLine();
+
+    default void close() {}
+
+    // Reads System.in. There is one console per JVM, so every engine gets the same reader and
+    // close() leaves System.in open for the next match.
+    static GameInput console() { return Console.INSTANCE; }
+
+    final class Console implements GameInput {
+        static final Console INSTANCE = new Console();
+
+        private Scanner scanner; // created on first use
+
+        private Console() {}
+
+        @Override public synchronized String readLine() {
+            if (scanner == null) scanner = new Scanner(System.in);
+            return scanner.nextLine();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,38 @@
+package game;
+
+// Typed game events. Register with GameEngine.addListener; every method has an empty default,
+// so a listener only overrides what it cares about. Events arrive on the engine's thread, in
+// game order, and must not block: hand slow work (I/O, network) to another thread, as
+// ConsoleListener does. Player objects are live views; read what you need during the call.
+
+public interface GameListener {
+    // Players are placed (round 0)
+    default void onPlaced(Player p, int x, int y) {}
+
+    // Before the zone shrinks for this round. The zone is live: read it during the call.
+    default void onRoundStart(int round, Zone zone) {}
+
+    default void onZoneShrunk(Zone zone) {}
+
+    // Caught outside the zone after it shrank
+    default void onZoneDeath(Player p) {}
+
+    // Before p decides its move
+    default void onTurn(Player p) {}
+
+    default void onMoved(Player p, int x, int y) {}
+
+    // After the damage is applied; attacker is the player who moved onto the tile
+    default void onBattle(Player attacker, Player defender, Player winner, Player loser, int damage) {}
+
+    // The loser of a battle died; the winner's weapon hasn't levelled up for the kill yet
+    default void onEliminated(Player winner, Player loser) {}
+
+    // Loot found on a free tile; equipped tells whether it replaced the current weapon
+    default void onLooted(Player p, ToolType tool, int level, boolean equipped) {}
+
+    default void onRoundEnd(int round, int alive) {}
+
+    // winner is null when everyone died
+    default void onMatchEnd(Player winner, int rounds) {}
+}
\ No newline at end of file
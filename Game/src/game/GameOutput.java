@@ -0,0 +1,31 @@
+package game;
+
+// Sink for everything the engine would otherwise write to System.out.
+// The engine checks isEnabled() before building any message, so a disabled
+// sink keeps string formatting off the hot path entirely.
+
+public interface GameOutput {
+    void print(String s);
+
+    default void println(String s) { print(s + System.lineSeparator()); }
+    default void println() { print(System.lineSeparator()); }
+    default void printf(String format, Object... args) { print(String.format(format, args)); }
+    default boolean isEnabled() { return true; }
+
+    // Discards everything; used for headless matches
+    GameOutput NONE = new GameOutput() {
+        @Override public void print(String s) {}
+        @Override public void println(String s) {}
+        @Override public void println() {}
+        @Override public void printf(String format, Object... args) {}
+        @Override public boolean isEnabled() { return false; }
+    };
+
+    // Plain console output (the original behaviour)
+    GameOutput CONSOLE = new GameOutput() {
+        @Override public void print(String s) { System.out.print(s); }
+        @Override public void println(String s) { System.out.println(s); }
+        @Override public void println() { System.out.println(); }
+        @Override public void printf(String format, Object... args) { System.out.printf(format, args); }
+    };
+}
\ No newline at end of file
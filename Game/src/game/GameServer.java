@@ -0,0 +1,432 @@
+package game;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Multiplayer over TCP. One selector thread owns every socket: it accepts, reads the clients'
+// commands and writes whatever the matches queued for them. Matches run on a MatchHost, each
+// human seat being a GameInput that blocks the engine's turn until that client's move arrives
+// (or the turn times out, which counts as STAY); MatchHost gives such matches a thread each, so a
+// waiting match never holds up another. An idle connection is a channel, a key and a few
+// fields; reads go through one shared buffer and only a frame split across packets is copied
+// aside, so thousands of connections cost little memory.
+//
+// Frames, both directions: u16 length (type + payload), u8 type, payload. Big-endian.
+//   client JOIN  u8 class, u8 tool, name (UTF-8, rest of the frame): queue for the next match
+//   client MOVE  u8 direction code (MoveStrategy.UP..STAY)
+//   server WELCOME  u16 slot, u16 players, u16 map size
+//   server STATE    i32 round, u8 zone shape, i16 zone centre x, y, i16 extent, u16 alive,
+//                   i16 hp, x, y, u8 tool, u8 level, u16 n, n x (i16 x, y, hp) of the other players
+//                   within VIEW_RADIUS tiles
+//   server TURN     (empty) your move
+//   server END      i16 winner slot (-1 for none), i32 rounds
+// A client gets STATE before each of its turns and at the end of every round. After END it may
+// JOIN again.
+
+public final class GameServer implements AutoCloseable {
+    static final byte JOIN = 1, MOVE = 2;
+    static final byte WELCOME = 10, STATE = 11, TURN = 12, END = 13;
+    static final int VIEW_RADIUS = 5;
+    static final int MAX_NAME_BYTES = 32;
+    // Longest frame a client may send; anything longer drops the connection
+    static final int MAX_CLIENT_FRAME = 3 + MAX_NAME_BYTES;
+    // Frames queued for a client that isn't reading them; one more drops the connection
+    static final int MAX_QUEUED_FRAMES = 256;
+    public static final long DEFAULT_TURN_TIMEOUT_MILLIS = 30_000;
+
+    private final GameConfig config;
+    private final int seatsPerMatch;
+    private final MatchHost host;
+    private final long turnTimeoutMillis;
+    private final Selector selector;
+    private final ServerSocketChannel server;
+    private final ByteBuffer readBuffer = ByteBuffer.allocateDirect(1 << 16);
+    // Connections with frames to send, handed over by the match threads
+    private final ConcurrentLinkedQueue<Connection> wantWrite = new ConcurrentLinkedQueue<>();
+    private final List<Connection> lobby = new ArrayList<>();
+    private final Thread loop;
+    private volatile boolean open = true;
+    private volatile int connections;
+
+    // port 0 picks a free one (see getPort). Every match is the config's AI players plus
+    // seatsPerMatch humans, in the order they joined.
+    public GameServer(int port, GameConfig config, int seatsPerMatch, MatchHost host, long turnTimeoutMillis) throws IOException {
+        if (seatsPerMatch < 1) throw new IllegalArgumentException("A match needs at least one seat");
+        if (config.getRegionSize() > 0) throw new IllegalArgumentException("Region rounds move everyone by AI; they can't seat humans");
+        if (turnTimeoutMillis < 1) throw new IllegalArgumentException("Turn timeout must be positive");
+        this.config = config.copy();
+        this.seatsPerMatch = seatsPerMatch;
+        this.host = host;
+        this.turnTimeoutMillis = turnTimeoutMillis;
+        selector = Selector.open();
+        server = ServerSocketChannel.open();
+        server.bind(new InetSocketAddress(port), 1024);
+        server.configureBlocking(false);
+        server.register(selector, SelectionKey.OP_ACCEPT);
+        loop = new Thread(this::run, "game-server");
+        loop.setDaemon(true);
+        loop.start();
+    }
+
+    public int getPort() { return server.socket().getLocalPort(); }
+
+    // Open connections (read on the selector thread, so a moment stale)
+    public int getConnectionCount() { return connections; }
+
+    // --- Selector thread ---
+    private void run() {
+        try {
+            while (open) {
+                selector.select(this::ready);
+                for (Connection c; (c = wantWrite.poll()) != null; ) {
+                    if (c.outbox.isClosed()) drop(c);
+                    else if (c.key.isValid()) c.key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (ClosedSelectorException e) {
+            // closed under us: shutting down
+        }
+    }
+
+    private void ready(SelectionKey key) {
+        if (key.isAcceptable()) {
+            accept();
+            return;
+        }
+        Connection c = (Connection) key.attachment();
+        try {
+            if (key.isReadable()) read(c);
+            if (key.isValid() && key.isWritable()) write(c);
+        } catch (IOException e) {
+            drop(c);
+        }
+    }
+
+    private void accept() {
+        try {
+            for (SocketChannel ch; (ch = server.accept()) != null; ) {
+                ch.configureBlocking(false);
+                ch.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                Connection c = new Connection(ch);
+                c.key = ch.register(selector, SelectionKey.OP_READ, c);
+                connections++;
+            }
+        } catch (IOException e) {
+            // a client gave up while being accepted; the others are still fine
+        }
+    }
+
+    private void read(Connection c) throws IOException {
+        ByteBuffer buf = readBuffer;
+        buf.clear();
+        if (c.partial != null) {
+            buf.put(c.partial);
+            c.partial = null;
+        }
+        if (c.channel.read(buf) < 0) {
+            drop(c);
+            return;
+        }
+        buf.flip();
+        while (buf.remaining() >= 2) {
+            int len = buf.getShort(buf.position()) & 0xFFFF;
+            if (len < 1 || len > MAX_CLIENT_FRAME) {
+                drop(c);
+                return;
+            }
+            if (buf.remaining() < 2 + len) break;
+            int end = buf.position() + 2 + len;
+            buf.position(buf.position() + 2);
+            command(c, buf.get(), buf, end);
+            if (!c.key.isValid()) return;
+            buf.position(end);
+        }
+        if (buf.hasRemaining()) {
+            c.partial = new byte[buf.remaining()];
+            buf.get(c.partial);
+        }
+    }
+
+    private void command(Connection c, byte type, ByteBuffer buf, int end) {
+        switch (type) {
+            case JOIN: {
+                if (c.seat != null || end - buf.position() < 2) return;
+                int charId = buf.get() & 0xFF, toolId = buf.get() & 0xFF;
+                ContentRegistry content = config.getContent();
+                if (charId >= content.characterCount() || toolId >= content.toolCount()) {
+                    drop(c);
+                    return;
+                }
+                byte[] name = new byte[end - buf.position()];
+                buf.get(name);
+                c.seat = new Seat(c, new String(name, StandardCharsets.UTF_8), charId, toolId);
+                lobby.add(c);
+                if (lobby.size() == seatsPerMatch) startMatch();
+                return;
+            }
+            case MOVE:
+                if (c.seat != null && end - buf.position() >= 1) c.seat.offer(buf.get());
+                return;
+            default:
+                drop(c);
+        }
+    }
+
+    private void startMatch() {
+        Seat[] seated = new Seat[lobby.size()];
+        for (int i = 0; i < seated.length; i++) seated[i] = lobby.get(i).seat;
+        lobby.clear();
+        host.submit(config, GameOutput.NONE, engine -> {
+            for (Seat s : seated) {
+                s.slot = engine.addHuman(s.name, s.charId, s.toolId, s).getSlot();
+            }
+            engine.addListener(new Broadcaster(engine, seated));
+            for (Seat s : seated) {
+                s.connection.send(frame(WELCOME, 6).putShort((short) s.slot).putShort((short) (seated.length + config.getNumAI()))
+                                                   .putShort((short) config.getMapSize()));
+            }
+        }).exceptionally(e -> {
+            ended(seated, -1, 0); // the match failed: let its players join another
+            return null;
+        });
+    }
+
+    private static void ended(Seat[] seats, int winner, int rounds) {
+        for (Seat s : seats) {
+            s.connection.seat = null; // free to JOIN again, before the client can see END
+            if (!s.gone) s.connection.send(frame(END, 6).putShort((short) winner).putInt(rounds));
+        }
+    }
+
+    private void write(Connection c) throws IOException {
+        c.writeRequested.set(false);
+        for (ByteBuffer b; (b = c.outbox.peek()) != null; ) {
+            c.channel.write(b);
+            if (b.hasRemaining()) return; // socket full; OP_WRITE stays on
+            c.outbox.remove();
+        }
+        c.key.interestOps(SelectionKey.OP_READ);
+    }
+
+    private void drop(Connection c) {
+        if (!c.key.isValid()) return;
+        c.key.cancel();
+        try {
+            c.channel.close();
+        } catch (IOException e) {
+            // closing anyway
+        }
+        connections--;
+        c.outbox.close();
+        lobby.remove(c);
+        Seat s = c.seat;
+        if (s != null) s.disconnect();
+    }
+
+    // A frame with room for `payload` bytes after the header; flip it before sending
+    static ByteBuffer frame(byte type, int payload) {
+        return ByteBuffer.allocate(3 + payload).putShort((short) (1 + payload)).put(type);
+    }
+
+    // Stops accepting and closes every connection; matches in progress play on with idle seats
+    @Override
+    public void close() {
+        open = false;
+        try {
+            selector.wakeup();
+            loop.join();
+            for (SelectionKey k : selector.keys()) k.channel().close();
+            selector.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // --- One client socket ---
+    private final class Connection {
+        final SocketChannel channel;
+        SelectionKey key;
+        byte[] partial; // start of a frame that hasn't fully arrived
+        volatile Seat seat;
+        final Outbox outbox = new Outbox(MAX_QUEUED_FRAMES);
+        final AtomicBoolean writeRequested = new AtomicBoolean();
+
+        Connection(SocketChannel channel) { this.channel = channel; }
+
+        // Any thread: queues a filled frame and wakes the selector if it isn't already writing. A
+        // client too far behind gets nothing more; the selector drops it and its seat stays.
+        void send(ByteBuffer frame) {
+            frame.flip();
+            if (!outbox.add(frame)) {
+                wantWrite.add(this);
+                selector.wakeup();
+                return;
+            }
+            if (writeRequested.compareAndSet(false, true)) {
+                wantWrite.add(this);
+                selector.wakeup();
+            }
+        }
+    }
+
+    // --- Frames waiting for one client: filled by its match thread, drained by the selector. At
+    // most `limit` of them; a client that lets more pile up is closed, so a connection that stops
+    // reading costs a bounded amount of memory however long its match runs ---
+    static final class Outbox {
+        private final ConcurrentLinkedQueue<ByteBuffer> frames = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger size = new AtomicInteger();
+        private final int limit;
+        private volatile boolean closed;
+
+        Outbox(int limit) { this.limit = limit; }
+
+        // False, and the frame not queued, once closed; the frame past the limit closes it
+        boolean add(ByteBuffer frame) {
+            if (closed) return false;
+            if (size.incrementAndGet() > limit) {
+                size.decrementAndGet();
+                closed = true;
+                return false;
+            }
+            frames.add(frame);
+            return true;
+        }
+
+        ByteBuffer peek() { return frames.peek(); }
+
+        // The frame peek() returned has been written
+        void remove() {
+            if (frames.poll() != null) size.decrementAndGet();
+        }
+
+        boolean isClosed() { return closed; }
+
+        // Refuses every later frame and lets go of the queued ones
+        void close() {
+            closed = true;
+            frames.clear();
+        }
+    }
+
+    // --- A player's chair in a match: the engine reads its moves here ---
+    private final class Seat implements GameInput {
+        final Connection connection;
+        final String name;
+        final int charId, toolId;
+        int slot;
+        private final ArrayBlockingQueue<Byte> moves = new ArrayBlockingQueue<>(1);
+        private volatile boolean gone;
+
+        Seat(Connection connection, String name, int charId, int toolId) {
+            this.connection = connection;
+            this.name = name;
+            this.charId = charId;
+            this.toolId = toolId;
+        }
+
+        // Selector thread; a move sent ahead of the turn is kept, later ones until then are dropped
+        void offer(byte dir) {
+            if (dir >= MoveStrategy.UP && dir <= MoveStrategy.STAY) moves.offer(dir);
+        }
+
+        void disconnect() {
+            gone = true;
+            moves.offer((byte) MoveStrategy.STAY); // wakes a turn in progress
+        }
+
+        // Engine thread: asks for a move and waits for it
+        @Override public String readLine() {
+            if (gone) return ReplayRecorder.MOVES[MoveStrategy.STAY];
+            connection.send(frame(TURN, 0));
+            try {
+                Byte dir = moves.poll(turnTimeoutMillis, TimeUnit.MILLISECONDS);
+                return ReplayRecorder.MOVES[dir != null ? dir : MoveStrategy.STAY];
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return ReplayRecorder.MOVES[MoveStrategy.STAY];
+            }
+        }
+    }
+
+    // --- Pushes state to a match's seats (engine thread) ---
+    private final class Broadcaster implements GameListener {
+        private final GameEngine engine;
+        private final Seat[] seats;
+        private final Seat[] bySlot;
+
+        Broadcaster(GameEngine engine, Seat[] seats) {
+            this.engine = engine;
+            this.seats = seats;
+            int slots = 0;
+            for (Seat s : seats) slots = Math.max(slots, s.slot + 1);
+            bySlot = new Seat[slots];
+            for (Seat s : seats) bySlot[s.slot] = s;
+        }
+
+        @Override
+        public void onTurn(Player p) {
+            int slot = p.getSlot();
+            if (slot < bySlot.length && bySlot[slot] != null && !bySlot[slot].gone) state(bySlot[slot]);
+        }
+
+        @Override
+        public void onRoundEnd(int round, int alive) {
+            for (Seat s : seats) if (!s.gone) state(s);
+        }
+
+        @Override
+        public void onMatchEnd(Player winner, int rounds) {
+            ended(seats, winner != null ? winner.getSlot() : -1, rounds);
+        }
+
+        private void state(Seat s) {
+            Player me = engine.getPlayerAtSlot(s.slot);
+            SpatialIndex index = engine.getIndex();
+            int mapSize = engine.getMapSize(), x = me.getX(), y = me.getY();
+            int x0 = Math.max(0, x - VIEW_RADIUS), x1 = Math.min(mapSize - 1, x + VIEW_RADIUS);
+            int y0 = Math.max(0, y - VIEW_RADIUS), y1 = Math.min(mapSize - 1, y + VIEW_RADIUS);
+            int seen = 0;
+            for (int ty = y0; ty <= y1; ty++) {
+                for (int tx = x0; tx <= x1; tx++) seen += index.countAt(tx, ty);
+            }
+            if (me.isAlive()) seen--; // not ourselves
+
+            Zone zone = engine.getZone();
+            ByteBuffer f = frame(STATE, 23 + 6 * seen);
+            f.putInt(engine.getRound()).put((byte) config.getZoneShape().ordinal())
+             .putShort((short) zone.centreX(zone.getStep())).putShort((short) zone.centreY(zone.getStep()))
+             .putShort((short) zone.getExtent()).putShort((short) engine.getAliveCount())
+             .putShort((short) me.getCurrentHealth()).putShort((short) x).putShort((short) y)
+             .put((byte) me.getWeaponType().getId()).put((byte) me.getWeaponLevel()).putShort((short) seen);
+            for (int ty = y0; ty <= y1; ty++) {
+                for (int tx = x0; tx <= x1; tx++) {
+                    for (int o = index.first(tx, ty); o != SpatialIndex.NONE; o = index.next(o)) {
+                        if (o == s.slot) continue;
+                        f.putShort((short) tx).putShort((short) ty).putShort((short) engine.getPlayerAtSlot(o).getCurrentHealth());
+                    }
+                }
+            }
+            s.connection.send(f);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,141 @@
+package game;
+
+import java.util.Arrays;
+
+// The AI's view of the board, rebuilt once per round and shared by every AI. Works on a coarse
+// grid of 2^shift x 2^shift tile cells (at most MAX_CELLS per side) with three layers:
+//   zone   - distance to the zone centre and whether a tile is about to fall outside it
+//            (exact, computed from the Zone's geometry rather than stored)
+//   threat - opponents' combined power around each cell, smoothed over the 3x3 neighbourhood
+//   loot   - how much room each cell has for loot rolls (rolls only happen on tiles without a fight),
+//            or with world loot the items themselves (WorldLoot.nearest)
+// Only the layers a strategy asks for are built. Lookups are plain array reads.
+
+public final class InfluenceMap {
+    static final int MAX_CELLS = 64;
+    // Layers, in the order difficulty adds them
+    public static final int ZONE = 1, THREAT = 2, LOOT = 3;
+
+    private final int mapSize;
+    private final Zone zone;
+    private final int shift;
+    private final int cellsPerSide;
+    private final int cellArea;
+    private final int[] count;      // living players per cell
+    private final long[] power;     // summed power of those players
+    private final long[] threatCount; // smoothed count
+    private final long[] threatPower; // smoothed power
+    private int layers;
+    private int step;
+    private int round;
+    private boolean shrinkNext;
+    private SpatialIndex index;
+    private WorldLoot loot;
+
+    public InfluenceMap(int mapSize, Zone zone) {
+        this.mapSize = mapSize;
+        this.zone = zone;
+        int s = 0;
+        while ((mapSize + (1 << s) - 1) >> s > MAX_CELLS) s++;
+        shift = s;
+        cellsPerSide = (mapSize + (1 << s) - 1) >> s;
+        cellArea = 1 << (2 * s);
+        count = new int[cellsPerSide * cellsPerSide];
+        power = new long[count.length];
+        threatCount = new long[count.length];
+        threatPower = new long[count.length];
+    }
+
+    // Rebuilds the field for the round being played, after this round's shrink. When the next
+    // round shrinks the zone again, tiles that won't be safe after it are doomed.
+    void update(PlayerStore store, SpatialIndex index, int round, int layers) {
+        this.index = index;
+        this.step = zone.getStep();
+        this.round = round;
+        this.shrinkNext = zone.shrinksAt(round + 1) && !zone.isFinal();
+        this.layers = layers;
+        if (layers < THREAT) return;
+
+        Arrays.fill(count, 0);
+        Arrays.fill(power, 0);
+        for (int i = 0; i < store.aliveCount(); i++) {
+            int s = store.aliveAt(i);
+            int c = cell(store.x[s], store.y[s]);
+            count[c]++;
+            power[c] += power(store, s);
+        }
+        // 3x3 smoothing, own cell weighted double
+        int n = cellsPerSide;
+        for (int cy = 0; cy < n; cy++) {
+            for (int cx = 0; cx < n; cx++) {
+                long tc = 0, tp = 0;
+                for (int dy = -1; dy <= 1; dy++) {
+                    int y = cy + dy;
+                    if (y < 0 || y >= n) continue;
+                    for (int dx = -1; dx <= 1; dx++) {
+                        int x = cx + dx;
+                        if (x < 0 || x >= n) continue;
+                        int w = dx == 0 && dy == 0 ? 2 : 1;
+                        tc += w * count[y * n + x];
+                        tp += w * power[y * n + x];
+                    }
+                }
+                threatCount[cy * n + cx] = tc;
+                threatPower[cy * n + cx] = tp;
+            }
+        }
+    }
+
+    // Fighting strength used for threat: what a player hits with plus what they absorb
+    static int power(PlayerStore store, int s) {
+        return store.attack[s] + store.weaponDamage[s] + store.defense[s] + store.rangedReduction[s];
+    }
+
+    public int getLayers() { return layers; }
+    public Zone getZone() { return zone; }
+    // Zone step the field was built for
+    public int getStep() { return step; }
+    public int getRound() { return round; }
+    public int getCellSize() { return 1 << shift; }
+    // Exact tile occupancy, for strategies that look at individual opponents
+    SpatialIndex getIndex() { return index; }
+    // Items on the map, or null when loot is rolled for
+    WorldLoot getLoot() { return loot; }
+    void setLoot(WorldLoot loot) { this.loot = loot; }
+
+    int cell(int x, int y) {
+        x = Math.min(Math.max(x, 0), mapSize - 1);
+        y = Math.min(Math.max(y, 0), mapSize - 1);
+        return (y >> shift) * cellsPerSide + (x >> shift);
+    }
+
+    // --- Layer lookups ---
+
+    // The zone won't shrink any more. Nothing forces a fight from here on, so strategies should
+    // just converge on the centre (a weaker player fleeing by threat could otherwise run forever).
+    boolean isFinalZone() { return step >= zone.getSteps(); }
+
+    // A player may stand here this round
+    boolean allows(int x, int y) { return zone.allows(step, x, y); }
+
+    // Manhattan distance to the zone centre
+    int centreDistance(int x, int y) { return zone.centreDistance(step, x, y); }
+
+    // The tile is outside the zone after the coming shrink
+    boolean doomed(int x, int y) {
+        return shrinkNext && !zone.safe(step + 1, x, y);
+    }
+
+    // Power of everyone around the cell minus what `ownPower` would match; positive means the
+    // neighbourhood is stronger than the player. The player's own contribution cancels out.
+    long threat(int cell, int ownPower) {
+        return threatPower[cell] - threatCount[cell] * ownPower;
+    }
+
+    // Share of the cell's tiles without another player, in 1/1024ths (`self` is the asking
+    // player's own cell, where it doesn't count against itself)
+    int freeShare(int cell, int self) {
+        int others = count[cell] - (cell == self ? 1 : 0);
+        return (int) (Math.max(0, cellArea - others) * 1024L / cellArea);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,209 @@
+package game;
+
+// Draws the map into a reusable frame buffer and hands it to the output in one write.
+// Maps that fit in the view are drawn whole (the classic look). Bigger maps show either a
+// viewport that scrolls to follow the focus point, or a downsampled minimap built from the
+// spatial index's block counts. Either way the work per frame depends on the view size only,
+// not on the map size or the number of players.
+
+public abstract class MapRenderer {
+    public static final int DEFAULT_VIEW = 32;
+    private static final String LEGEND = "Map (simple) - legend: H=Human A=AI M=Multiple .=empty X=Shrunk Zone";
+
+    protected final int viewSize;
+    protected final boolean minimap;
+    protected final StringBuilder sb = new StringBuilder();
+    // Current frame, row-major with row 0 at the bottom
+    protected char[] cells;
+    protected int rows, cols;
+    // Map coordinates of the frame's bottom-left cell and tiles covered per cell
+    protected int originX, originY, scale = 1;
+
+    protected MapRenderer(int viewSize, boolean minimap) {
+        this.viewSize = viewSize;
+        this.minimap = minimap;
+    }
+
+    public static MapRenderer create(boolean ansi, int viewSize, boolean minimap) {
+        return ansi ? new Ansi(viewSize, minimap) : new Text(viewSize, minimap);
+    }
+
+    public abstract void render(GameEngine engine, GameOutput out);
+
+    // After the last frame: undo whatever the renderer did to the terminal
+    public void finish(GameOutput out) {}
+
+    // --- Frame building ---
+    protected void fillFrame(GameEngine engine) {
+        int mapSize = engine.getMapSize();
+        if (minimap && mapSize > viewSize) fillMinimap(engine);
+        else fillViewport(engine, mapSize);
+    }
+
+    private void fillViewport(GameEngine engine, int mapSize) {
+        int view = Math.min(mapSize, viewSize);
+        resize(view, view);
+        scale = 1;
+        originX = clamp(engine.getFocusX() - view / 2, 0, mapSize - view);
+        originY = clamp(engine.getFocusY() - view / 2, 0, mapSize - view);
+
+        SpatialIndex index = engine.getIndex();
+        Zone zone = engine.getZone();
+        for (int r = 0; r < view; r++) {
+            int y = originY + r;
+            for (int c = 0; c < view; c++) {
+                int x = originX + c;
+                int n = index.countAt(x, y);
+                boolean outside = !zone.allows(zone.getStep(), x, y);
+                char ch;
+                if (n == 0) ch = outside ? 'X' : '.';
+                else if (outside) ch = '*';
+                else if (n > 1) ch = 'M';
+                else ch = engine.getPlayerAtSlot(index.first(x, y)).isHuman() ? 'H' : 'A';
+                cells[r * view + c] = ch;
+            }
+        }
+    }
+
+    private void fillMinimap(GameEngine engine) {
+        SpatialIndex index = engine.getIndex();
+        int blocks = index.getBlocksPerSide();
+        int k = (blocks + viewSize - 1) / viewSize; // blocks per minimap cell
+        int side = (blocks + k - 1) / k;
+        resize(side, side);
+        originX = originY = 0;
+        scale = k << index.getBlockShift();
+
+        Zone zone = engine.getZone();
+        for (int r = 0; r < side; r++) {
+            for (int c = 0; c < side; c++) {
+                int n = 0;
+                for (int by = r * k; by < Math.min(blocks, (r + 1) * k); by++) {
+                    for (int bx = c * k; bx < Math.min(blocks, (c + 1) * k); bx++) n += index.blockCount(bx, by);
+                }
+                boolean outside = !zone.allows(zone.getStep(), c * scale, r * scale);
+                char ch;
+                if (n == 0) ch = outside ? 'X' : '.';
+                else if (n < 10) ch = (char) ('0' + n);
+                else ch = '#';
+                cells[r * side + c] = ch;
+            }
+        }
+    }
+
+    private void resize(int r, int c) {
+        if (cells == null || cells.length != r * c) cells = new char[r * c];
+        rows = r;
+        cols = c;
+    }
+
+    private static int clamp(int v, int lo, int hi) { return Math.max(lo, Math.min(hi, v)); }
+
+    protected void appendHeader(GameEngine engine) {
+        if (scale > 1) {
+            sb.append("Minimap - 1 cell = ").append(scale).append('x').append(scale)
+              .append(" tiles - legend: .=empty 1-9=players #=10+ X=Shrunk Zone\n");
+        } else {
+            sb.append(LEGEND).append('\n');
+            if (cols < engine.getMapSize()) {
+                sb.append("(showing ").append(originX).append("..").append(originX + cols - 1).append(" x ")
+                  .append(originY).append("..").append(originY + rows - 1)
+                  .append(" of 0..").append(engine.getMapSize() - 1).append(")\n");
+            }
+        }
+    }
+
+    protected int headerLines(GameEngine engine) { return scale == 1 && cols < engine.getMapSize() ? 2 : 1; }
+
+    // Row labels are padded to the widest one so the cells line up (at least 2 wide, like "%2d")
+    protected int labelWidth() {
+        int max = scale > 1 ? (rows - 1) * scale : originY + rows - 1;
+        return Math.max(2, String.valueOf(max).length());
+    }
+
+    // print grid with (0,0) in bottom-left
+    protected void appendRow(int r) {
+        int label = scale > 1 ? r * scale : originY + r;
+        for (int pad = labelWidth() - String.valueOf(label).length(); pad > 0; pad--) sb.append(' ');
+        sb.append(label).append(' ');
+        for (int c = 0; c < cols; c++) sb.append(cells[r * cols + c]).append(' ');
+        sb.append('\n');
+    }
+
+    // x axis labels (last digit only once they would no longer fit a cell)
+    protected void appendAxis() {
+        for (int pad = labelWidth() + 1; pad > 0; pad--) sb.append(' ');
+        boolean wide = scale > 1 || originX + cols > 10;
+        for (int c = 0; c < cols; c++) {
+            int x = scale > 1 ? c : originX + c;
+            sb.append(wide ? x % 10 : x).append(' ');
+        }
+        sb.append('\n');
+    }
+
+    // --- Plain text: the whole frame every time, as one write ---
+    static final class Text extends MapRenderer {
+        Text(int viewSize, boolean minimap) { super(viewSize, minimap); }
+
+        @Override public void render(GameEngine engine, GameOutput out) {
+            fillFrame(engine);
+            sb.setLength(0);
+            appendHeader(engine);
+            for (int r = rows - 1; r >= 0; r--) appendRow(r);
+            appendAxis();
+            out.print(sb.toString());
+        }
+    }
+
+    // --- ANSI terminal: full draw once, afterwards only the cells that changed ---
+    // The full draw pins the map to the top of the screen: everything below it becomes the scroll
+    // region (DECSTBM), so the engine's text between frames scrolls there and the map rows stay
+    // where the cell updates address them. finish() gives the terminal its whole screen back.
+    static final class Ansi extends MapRenderer {
+        private static final String ESC = "\u001b[";
+        private char[] shown;
+        private int shownOriginX = -1, shownOriginY = -1, shownScale;
+
+        Ansi(int viewSize, boolean minimap) { super(viewSize, minimap); }
+
+        @Override public void render(GameEngine engine, GameOutput out) {
+            fillFrame(engine);
+            sb.setLength(0);
+            boolean full = shown == null || shown.length != cells.length
+                || originX != shownOriginX || originY != shownOriginY || scale != shownScale;
+            if (full) {
+                sb.append(ESC).append('r').append(ESC).append("2J").append(ESC).append("H");
+                appendHeader(engine);
+                for (int r = rows - 1; r >= 0; r--) appendRow(r);
+                appendAxis();
+                // Scroll only below the map (setting the region homes the cursor, so move it there)
+                int below = headerLines(engine) + rows + 2;
+                sb.append(ESC).append(below).append('r').append(ESC).append(below).append(";1H");
+                shown = cells.clone();
+                shownOriginX = originX;
+                shownOriginY = originY;
+                shownScale = scale;
+            } else {
+                int top = headerLines(engine) + 1; // first map row on screen (1-based)
+                int left = labelWidth() + 2;
+                sb.append("\u001b7"); // save cursor
+                for (int r = 0; r < rows; r++) {
+                    for (int c = 0; c < cols; c++) {
+                        int i = r * cols + c;
+                        if (cells[i] == shown[i]) continue;
+                        shown[i] = cells[i];
+                        sb.append(ESC).append(top + rows - 1 - r).append(';').append(left + 2 * c).append('H').append(cells[i]);
+                    }
+                }
+                sb.append("\u001b8"); // restore cursor
+            }
+            out.print(sb.toString());
+        }
+
+        @Override public void finish(GameOutput out) {
+            if (shown == null) return;
+            shown = null;
+            out.print("\u001b7" + ESC + "r\u001b8"); // whole screen scrolls again, cursor stays
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,135 @@
+package game;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+// Plays many matches at once in one JVM. Every match is its own GameEngine on its own thread;
+// engines share no mutable state (ids, random streams, input and output are all per match), so
+// nothing needs a lock. Match threads are virtual threads where the JVM has them (21+), so a
+// match waiting on a human or the network costs next to nothing. On older JVMs AI-only matches
+// share a pool with a thread per core, which for them is just as good; matches with seated
+// players (GameServer's) block for whole turns, so each gets a platform thread of its own from an
+// unbounded pool, and one slow player holds up only their own match.
+//
+// Hard AI turns are the only CPU-heavy ones. Their searches run single-threaded on the match's
+// own thread, and at most aiThreads of them at a time over all matches; the others wait (parked)
+// for a permit. That keeps a burst of hard lobbies from starving everyone else's turns.
+
+public final class MatchHost implements AutoCloseable {
+    private final ExecutorService matches;
+    private final ExecutorService seatedMatches; // the same as matches with virtual threads
+    private final boolean virtual;
+    private final Semaphore aiTurns;
+
+    public MatchHost() { this(Runtime.getRuntime().availableProcessors()); }
+
+    public MatchHost(int aiThreads) {
+        if (aiThreads < 1) throw new IllegalArgumentException("Need at least one AI thread");
+        aiTurns = new Semaphore(aiThreads);
+        ExecutorService v = virtualThreads();
+        virtual = v != null;
+        if (v != null) {
+            matches = v;
+            seatedMatches = v;
+        } else {
+            AtomicInteger n = new AtomicInteger();
+            ThreadFactory threads = r -> {
+                Thread t = new Thread(r, "match-" + n.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            };
+            matches = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), threads);
+            seatedMatches = Executors.newCachedThreadPool(threads);
+        }
+    }
+
+    // Looked up reflectively, so the code still builds and runs on 17
+    private static ExecutorService virtualThreads() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    public boolean usesVirtualThreads() { return virtual; }
+
+    // A headless AI-only match; completes with the finished engine (winner, rounds, log)
+    public CompletableFuture<GameEngine> submit(GameConfig config) { return submit(config, GameOutput.NONE); }
+
+    public CompletableFuture<GameEngine> submit(GameConfig config, GameOutput out) { return submit(config, out, null); }
+
+    // seating adds players of its own (GameEngine.addHuman) once the AI players exist, before
+    // anyone is placed; GameServer seats its network players this way
+    CompletableFuture<GameEngine> submit(GameConfig config, GameOutput out, Consumer<GameEngine> seating) {
+        GameConfig c = prepare(config);
+        return CompletableFuture.supplyAsync(() -> {
+            GameEngine engine = new GameEngine(out);
+            if (seating == null) {
+                engine.runMatch(c);
+                return engine;
+            }
+            engine.createPlayers(c);
+            seating.accept(engine);
+            engine.placePlayers();
+            engine.startGame();
+            return engine;
+        }, seating == null ? matches : seatedMatches);
+    }
+
+    // A copy per match; hard AI gets its own gated search, other strategies must be shareable
+    private GameConfig prepare(GameConfig config) {
+        GameConfig c = config.copy();
+        MoveStrategy s = c.getMoveStrategy();
+        if (s != null && !s.isThreadSafe()) {
+            throw new IllegalArgumentException("Hosted matches can only share a thread-safe move strategy; leave it unset for one per match");
+        }
+        if (s == null && c.getDifficulty() == 3) {
+            long budget = c.hasSeed() ? 0 : MctsStrategy.DEFAULT_BUDGET_NANOS;
+            c.setMoveStrategy(new Gated(new MctsStrategy(budget, MctsStrategy.DEFAULT_ITERATIONS, 1), aiTurns));
+        }
+        return c;
+    }
+
+    // Waits for the matches already submitted, then stops
+    @Override
+    public void close() {
+        matches.shutdown();
+        seatedMatches.shutdown();
+        try {
+            while (!matches.awaitTermination(1, TimeUnit.MINUTES)) { /* still playing */ }
+            while (!seatedMatches.awaitTermination(1, TimeUnit.MINUTES)) { /* still playing */ }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Runs the strategy only while holding one of the host's AI permits
+    static final class Gated implements MoveStrategy {
+        private final MoveStrategy inner;
+        private final Semaphore permits;
+
+        Gated(MoveStrategy inner, Semaphore permits) {
+            this.inner = inner;
+            this.permits = permits;
+        }
+
+        @Override public int layers() { return inner.layers(); }
+
+        @Override
+        public int chooseMove(InfluenceMap field, PlayerStore store, int slot, RandomSource rnd) {
+            permits.acquireUninterruptibly();
+            try {
+                return inner.chooseMove(field, store, slot, rnd);
+            } finally {
+                permits.release();
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,80 @@
+package game;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+// Binary snapshot of a match between two rounds: settings, every player's loadout, hp and
+// position, the alive order, every random stream, the turn queues, the order of players on each
+// tile, the zone step, the retained log and any world loot. A restored engine plays on exactly
+// as the original would have. Player state is copied straight out of the store's columns (about
+// 40 bytes a player), so a snapshot is cheap enough to take every round.
+//
+// Layout: magic, version, then GameEngine.writeState. Big-endian, like replays.
+
+public final class MatchSnapshot {
+    static final int MAGIC = 0x4252534E; // "BRSN"
+    // 2: world loot flag, then the loot stream and items at the end
+    static final byte VERSION = 2;
+
+    // Reused by every save, so checkpointing doesn't allocate once it has grown to the match
+    private ByteBuffer buffer = ByteBuffer.allocateDirect(0);
+
+    // Writes a temporary file next to `file` and moves it into place, so a crash mid-write leaves
+    // the previous snapshot intact
+    public void save(GameEngine engine, Path file) throws IOException {
+        ByteBuffer buf = encode(engine);
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.WRITE, StandardOpenOption.CREATE,
+                                               StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buf.hasRemaining()) ch.write(buf);
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // The snapshot's bytes, valid until the next save or encode
+    ByteBuffer encode(GameEngine engine) {
+        int size = 5 + engine.stateBytes();
+        if (buffer.capacity() < size) buffer = ByteBuffer.allocateDirect(Math.max(size, buffer.capacity() * 2));
+        buffer.clear();
+        buffer.putInt(MAGIC).put(VERSION);
+        engine.writeState(buffer);
+        buffer.flip();
+        return buffer;
+    }
+
+    // A silent, headless engine for an AI-only match
+    public static GameEngine load(Path file) throws IOException {
+        return load(file, new GameConfig(), GameOutput.NONE, null);
+    }
+
+    // settings: content (must match the snapshot's), AI strategy, log and rendering options.
+    // input: needed for matches with human players, and makes the engine interactive; null for a
+    // headless engine. Call startGame() on the result to play on.
+    public static GameEngine load(Path file, GameConfig settings, GameOutput out, GameInput input) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            return decode(ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size()), settings, out, input);
+        }
+    }
+
+    static GameEngine decode(ByteBuffer buf, GameConfig settings, GameOutput out, GameInput input) throws IOException {
+        try {
+            if (buf.getInt() != MAGIC) throw new IOException("Not a snapshot file");
+            byte version = buf.get();
+            if (version != VERSION) throw new IOException("Unsupported snapshot version " + version);
+            GameEngine engine = input != null ? new GameEngine(out, input, buf.getLong(buf.position())) : new GameEngine(out);
+            engine.readState(buf, settings);
+            return engine;
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Truncated snapshot", e);
+        } catch (RuntimeException e) {
+            // A bad id, count or setting anywhere in the state
+            throw new IOException("Corrupt snapshot: " + e.getMessage(), e);
+        }
+    }
+}
\ No newline at end of file
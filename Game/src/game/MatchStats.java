@@ -0,0 +1,63 @@
+package game;
+
+// Aggregate results over any number of matches: wins by class and by weapon, match length and
+// kills by the killer's weapon level. Only counters are kept, so a sweep can run millions of
+// matches through one instance per worker and merge them afterwards. Collects by listening to
+// engines (GameEngine.addListener), one match after another. Not thread-safe.
+
+public final class MatchStats implements GameListener {
+    // Kills at this weapon level or above share the last bucket
+    public static final int MAX_KILL_LEVEL = 16;
+
+    private final ContentRegistry content;
+    private long matches;
+    private long noWinner;
+    private long rounds;
+    private final long[] winsByClass;
+    private final long[] winsByTool;
+    private final long[] killsByLevel = new long[MAX_KILL_LEVEL + 1];
+
+    public MatchStats(ContentRegistry content) {
+        this.content = content;
+        this.winsByClass = new long[content.characterCount()];
+        this.winsByTool = new long[content.toolCount()];
+    }
+
+    // --- Recording ---
+    @Override
+    public void onEliminated(Player winner, Player loser) {
+        killsByLevel[Math.min(winner.getWeaponLevel(), MAX_KILL_LEVEL)]++;
+    }
+
+    @Override
+    public void onMatchEnd(Player winner, int matchRounds) {
+        matches++;
+        rounds += matchRounds;
+        if (winner == null) {
+            noWinner++;
+            return;
+        }
+        winsByClass[winner.getCharacter().getId()]++;
+        winsByTool[winner.getWeaponType().getId()]++;
+    }
+
+    public void merge(MatchStats other) {
+        if (other.content != content) throw new IllegalArgumentException("Stats for different content");
+        matches += other.matches;
+        noWinner += other.noWinner;
+        rounds += other.rounds;
+        for (int i = 0; i < winsByClass.length; i++) winsByClass[i] += other.winsByClass[i];
+        for (int i = 0; i < winsByTool.length; i++) winsByTool[i] += other.winsByTool[i];
+        for (int i = 0; i < killsByLevel.length; i++) killsByLevel[i] += other.killsByLevel[i];
+    }
+
+    // --- Results ---
+    public ContentRegistry getContent() { return content; }
+    public long getMatches() { return matches; }
+    public long getNoWinner() { return noWinner; }
+    public double getMeanRounds() { return matches == 0 ? 0 : (double) rounds / matches; }
+    public double getWinRateByClass(int charId) { return matches == 0 ? 0 : (double) winsByClass[charId] / matches; }
+    // By the weapon the winner held at the end
+    public double getWinRateByTool(int toolId) { return matches == 0 ? 0 : (double) winsByTool[toolId] / matches; }
+    public long getKillsAtLevel(int level) { return killsByLevel[Math.min(level, MAX_KILL_LEVEL)]; }
+}
\ No newline at end of file
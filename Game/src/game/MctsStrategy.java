@@ -0,0 +1,343 @@
+package game;
+
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Hard AI: Monte Carlo tree search over a small local copy of the game. Each turn the AI
+// snapshots the players around it (at most MAX_LOCAL within RADIUS tiles), then every worker
+// repeatedly restores that snapshot and plays HORIZON rounds ahead: its own first TREE_DEPTH
+// moves are picked by UCT, everything else by the easy AI's rule. Workers search independent
+// trees from their own RandomSource streams (root parallelization) and the move with the most
+// visits over all workers wins.
+//
+// A search stops at maxIterations (split evenly over the workers) or when budgetNanos of wall
+// clock has passed, whichever comes first. With budgetNanos = 0 only the iteration count limits
+// it, and the same seed always gives the same moves whatever the machine.
+
+public final class MctsStrategy implements MoveStrategy {
+    static final int RADIUS = 6;
+    static final int MAX_LOCAL = 24;
+    static final int HORIZON = 6;
+    static final int TREE_DEPTH = 3;
+    public static final long DEFAULT_BUDGET_NANOS = 2_000_000;
+    public static final int DEFAULT_ITERATIONS = 1024;
+    public static final int DEFAULT_WORKERS = 4;
+
+    private static final int ACTIONS = 5; // direction codes UP..STAY
+    private static final int NODES = 1 + ACTIONS + ACTIONS * ACTIONS + ACTIONS * ACTIONS * ACTIONS;
+    private static final double EXPLORATION = 1.4;
+    private static ExecutorService sharedPool;
+
+    private final long budgetNanos;
+    private final int maxIterations;
+    private final Worker[] workers;
+    private final Future<?>[] pending;
+    private final ExecutorService pool;
+    private final Snapshot root = new Snapshot();
+    // Used when there is nobody to search against, and in the final zone
+    private final MoveStrategy fallback = new Field(InfluenceMap.LOOT, 1);
+
+    public MctsStrategy(long budgetNanos, int maxIterations, int workers) {
+        this(budgetNanos, maxIterations, workers, workers > 1 ? sharedPool() : null);
+    }
+
+    // pool runs workers 1..n-1 (the calling thread runs worker 0); it may be shared between engines
+    public MctsStrategy(long budgetNanos, int maxIterations, int workers, ExecutorService pool) {
+        if (budgetNanos < 0) throw new IllegalArgumentException("Budget must not be negative");
+        if (maxIterations < 1) throw new IllegalArgumentException("Need at least one iteration");
+        if (workers < 1) throw new IllegalArgumentException("Need at least one worker");
+        if (workers > 1 && pool == null) throw new IllegalArgumentException("Several workers need a pool");
+        this.budgetNanos = budgetNanos;
+        this.maxIterations = maxIterations;
+        this.workers = new Worker[workers];
+        for (int i = 0; i < workers; i++) this.workers[i] = new Worker(root);
+        this.pending = new Future<?>[workers];
+        this.pool = pool;
+    }
+
+    // Daemon threads, one per core, shared by every search that doesn't bring its own pool
+    static synchronized ExecutorService sharedPool() {
+        if (sharedPool == null) {
+            AtomicInteger n = new AtomicInteger();
+            sharedPool = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), r -> {
+                Thread t = new Thread(r, "mcts-" + n.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+        }
+        return sharedPool;
+    }
+
+    @Override public int layers() { return fallback.layers(); }
+
+    @Override
+    public int chooseMove(InfluenceMap field, PlayerStore store, int slot, RandomSource rnd) {
+        // In the final zone everyone converges (see InfluenceMap.isFinalZone)
+        if (field.isFinalZone() || !root.capture(field, store, slot)) return fallback.chooseMove(field, store, slot, rnd);
+
+        long seed = rnd.nextLong();
+        long deadline = budgetNanos == 0 ? 0 : System.nanoTime() + budgetNanos;
+        int perWorker = (maxIterations + workers.length - 1) / workers.length;
+        for (int i = 0; i < workers.length; i++) workers[i].prepare(RandomSource.mix(seed + i), perWorker, deadline);
+        for (int i = 1; i < workers.length; i++) pending[i] = pool.submit(workers[i]);
+        workers[0].run();
+        try {
+            for (int i = 1; i < workers.length; i++) pending[i].get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted during AI search", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("AI search failed", e.getCause());
+        } finally {
+            for (int i = 1; i < workers.length; i++) pending[i] = null;
+        }
+
+        // Most visited first move over all trees; ties go to the lower direction code
+        int best = STAY, bestVisits = -1;
+        for (int a = 0; a < ACTIONS; a++) {
+            int visits = 0;
+            for (Worker w : workers) visits += w.visits[1 + a];
+            if (visits > bestVisits) { best = a; bestVisits = visits; }
+        }
+        return best;
+    }
+
+    // --- Local copy of the game around the searching player ---
+    // Local index 0 is the searching player. Fight outcomes between every pair are looked up once
+    // at capture (winners don't level up inside the simulation, so they stay valid), which makes
+    // the simulation independent of the store, index and battle table.
+    static final class Snapshot {
+        final int[] slots = new int[MAX_LOCAL];
+        final int[] outcomes = new int[MAX_LOCAL * MAX_LOCAL];
+        final int[] order = new int[MAX_LOCAL]; // turn order, fastest first
+        final State state = new State();
+        Zone zone;
+        int size;
+
+        // false when nobody else is within RADIUS (nothing to search)
+        boolean capture(InfluenceMap field, PlayerStore store, int self) {
+            SpatialIndex index = field.getIndex();
+            int cx = store.x[self], cy = store.y[self];
+            size = 0;
+            slots[size++] = self;
+            // Rings of growing distance, so the nearest players are kept when there are too many
+            for (int d = 0; d <= RADIUS && size < MAX_LOCAL; d++) {
+                for (int dy = -d; dy <= d && size < MAX_LOCAL; dy++) {
+                    int y = cy + dy;
+                    int step = dy == -d || dy == d ? 1 : 2 * d;
+                    for (int dx = -d; dx <= d && size < MAX_LOCAL; dx += Math.max(1, step)) {
+                        int x = cx + dx;
+                        if (!field.allows(x, y)) continue;
+                        for (int s = index.first(x, y); s != SpatialIndex.NONE && size < MAX_LOCAL; s = index.next(s)) {
+                            if (s != self) slots[size++] = s;
+                        }
+                    }
+                }
+            }
+            if (size == 1) return false;
+
+            BattleTable table = store.getBattleTable();
+            for (int i = 0; i < size; i++) {
+                int a = slots[i];
+                state.x[i] = store.x[a];
+                state.y[i] = store.y[a];
+                state.hp[i] = store.hp[a];
+                for (int j = 0; j < size; j++) {
+                    if (i == j) continue;
+                    int b = slots[j];
+                    int pa = store.battleProfile[a], pb = store.battleProfile[b];
+                    outcomes[i * MAX_LOCAL + j] = pa != BattleTable.NO_PROFILE && pb != BattleTable.NO_PROFILE
+                        ? table.lookup(pa, pb) : table.compute(store, a, b);
+                }
+                // Insertion sort by speed (stable, so equal speeds keep capture order)
+                int k = i;
+                while (k > 0 && store.speed[slots[order[k - 1]]] < store.speed[a]) { order[k] = order[k - 1]; k--; }
+                order[k] = i;
+            }
+            state.alive = (1 << size) - 1;
+            zone = field.getZone();
+            state.step = field.getStep();
+            state.round = field.getRound();
+            state.kills = 0;
+            return true;
+        }
+    }
+
+    // The mutable part of a snapshot; restored before every playout with a few array copies
+    static final class State {
+        final int[] x = new int[MAX_LOCAL];
+        final int[] y = new int[MAX_LOCAL];
+        final int[] hp = new int[MAX_LOCAL];
+        int alive; // bit per local index
+        int step; // zone step
+        int round;
+        int kills;
+
+        void copyFrom(State s, int size) {
+            System.arraycopy(s.x, 0, x, 0, size);
+            System.arraycopy(s.y, 0, y, 0, size);
+            System.arraycopy(s.hp, 0, hp, 0, size);
+            alive = s.alive;
+            step = s.step;
+            round = s.round;
+            kills = s.kills;
+        }
+
+        boolean isAlive(int i) { return (alive & (1 << i)) != 0; }
+    }
+
+    // --- One search tree and its playouts ---
+    static final class Worker implements Runnable {
+        private final Snapshot root;
+        private final State state = new State();
+        // Complete 5-ary tree over the searcher's own moves: children of n are n*5+1 .. n*5+5
+        final int[] visits = new int[NODES];
+        private final double[] value = new double[NODES];
+        private final int[] path = new int[TREE_DEPTH + 1];
+        private final RandomSource rng = new RandomSource(0);
+        private int iterations;
+        private long deadline;
+
+        Worker(Snapshot root) { this.root = root; }
+
+        void prepare(long seed, int iterations, long deadline) {
+            rng.reseed(seed);
+            this.iterations = iterations;
+            this.deadline = deadline;
+            Arrays.fill(visits, 0);
+            Arrays.fill(value, 0);
+        }
+
+        @Override
+        public void run() {
+            for (int i = 0; i < iterations; i++) {
+                // nanoTime isn't free; checking every 16 playouts is plenty at these sizes
+                if (deadline != 0 && (i & 15) == 0 && i > 0 && System.nanoTime() > deadline) break;
+                playout();
+            }
+        }
+
+        private void playout() {
+            int size = root.size;
+            state.copyFrom(root.state, size);
+            int hp0 = state.hp[0];
+            int node = 0, depth = 0;
+            path[0] = 0;
+
+            for (int r = 0; r < HORIZON && state.isAlive(0) && Integer.bitCount(state.alive) > 1; r++) {
+                if (r > 0) startRound();
+                // The searcher moves first in the current round, then everyone in speed order
+                for (int t = r == 0 ? -1 : 0; t < size; t++) {
+                    int i = t < 0 ? 0 : root.order[t];
+                    if ((r == 0 && t >= 0 && i == 0) || !state.isAlive(i)) continue;
+                    int dir;
+                    if (i == 0 && depth < TREE_DEPTH) {
+                        dir = select(node);
+                        node = node * ACTIONS + 1 + dir;
+                        path[++depth] = node;
+                    } else {
+                        dir = rolloutMove(i);
+                    }
+                    step(i, dir);
+                    if (!state.isAlive(0)) break;
+                }
+            }
+
+            double v = evaluate(hp0);
+            for (int d = 0; d <= depth; d++) {
+                visits[path[d]]++;
+                value[path[d]] += v;
+            }
+        }
+
+        // UCT; unvisited children first, in direction order
+        private int select(int node) {
+            int first = node * ACTIONS + 1;
+            double logN = Math.log(Math.max(1, visits[node]));
+            int best = 0;
+            double bestScore = Double.NEGATIVE_INFINITY;
+            for (int a = 0; a < ACTIONS; a++) {
+                int c = first + a;
+                if (visits[c] == 0) return a;
+                double score = value[c] / visits[c] + EXPLORATION * Math.sqrt(logN / visits[c]);
+                if (score > bestScore) { bestScore = score; best = a; }
+            }
+            return best;
+        }
+
+        // Same rule as the easy AI: random pick among the three moves closest to the centre
+        private int rolloutMove(int i) {
+            int pick = rng.nextInt(3);
+            int x = state.x[i], y = state.y[i];
+            // STAY, LEFT, RIGHT, DOWN, UP distances (tie order as in MoveStrategy.Field)
+            int dStay = root.zone.centreDistance(state.step, x, y);
+            int dLeft = distance(x - 1, y, dStay);
+            int dRight = distance(x + 1, y, dStay);
+            int dDown = distance(x, y - 1, dStay);
+            int dUp = distance(x, y + 1, dStay);
+            if (rank(dStay, 0, dStay, dLeft, dRight, dDown, dUp) == pick) return STAY;
+            if (rank(dLeft, 1, dStay, dLeft, dRight, dDown, dUp) == pick) return LEFT;
+            if (rank(dRight, 2, dStay, dLeft, dRight, dDown, dUp) == pick) return RIGHT;
+            if (rank(dDown, 3, dStay, dLeft, dRight, dDown, dUp) == pick) return DOWN;
+            return UP;
+        }
+
+        // Centre distance after stepping to (x,y), or `stay` when the zone refuses the step
+        private int distance(int x, int y, int stay) {
+            return root.zone.allows(state.step, x, y) ? root.zone.centreDistance(state.step, x, y) : stay;
+        }
+
+        // Candidates that come before candidate `pos` (with distance d): closer, or as close and earlier
+        private static int rank(int d, int pos, int d0, int d1, int d2, int d3, int d4) {
+            int r = 0;
+            if (d0 < d || (d0 == d && 0 < pos)) r++;
+            if (d1 < d || (d1 == d && 1 < pos)) r++;
+            if (d2 < d || (d2 == d && 2 < pos)) r++;
+            if (d3 < d || (d3 == d && 3 < pos)) r++;
+            if (d4 < d || (d4 == d && 4 < pos)) r++;
+            return r;
+        }
+
+        // Move, then fight the first other player on the tile (same rules as the engine, no loot)
+        private void step(int i, int dir) {
+            int x = state.x[i] + MoveStrategy.dx(dir), y = state.y[i] + MoveStrategy.dy(dir);
+            if (!root.zone.allows(state.step, x, y)) { x = state.x[i]; y = state.y[i]; }
+            state.x[i] = x;
+            state.y[i] = y;
+            for (int j = 0; j < root.size; j++) {
+                if (j == i || !state.isAlive(j) || state.x[j] != x || state.y[j] != y) continue;
+                int outcome = root.outcomes[i * MAX_LOCAL + j];
+                int loser = BattleTable.firstWins(outcome) ? j : i;
+                state.hp[loser] -= BattleTable.damage(outcome);
+                if (state.hp[loser] <= 0) {
+                    state.alive &= ~(1 << loser);
+                    if (loser != 0 && (loser == j ? i : j) == 0) state.kills++;
+                }
+                return;
+            }
+        }
+
+        // Start of a simulated round: the zone shrinks on its schedule
+        private void startRound() {
+            Zone zone = root.zone;
+            state.round++;
+            if (!zone.shrinksAt(state.round) || state.step >= zone.getSteps()) return;
+            state.step++;
+            for (int i = 0; i < root.size; i++) {
+                if (state.isAlive(i) && !zone.safe(state.step, state.x[i], state.y[i])) state.alive &= ~(1 << i);
+            }
+        }
+
+        // 0 for dead; otherwise survival plus remaining health, kills and being inside the next zone
+        private double evaluate(int hp0) {
+            if (!state.isAlive(0)) return 0;
+            double v = 0.5 + 0.3 * state.hp[0] / Math.max(1, hp0) + 0.1 * Math.min(state.kills, 2) / 2;
+            if (root.zone.safe(state.step + 1, state.x[0], state.y[0])) v += 0.1;
+            return v;
+        }
+    }
+}
\ No newline at end of file
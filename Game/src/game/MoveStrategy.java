@@ -0,0 +1,111 @@
+package game;
+
+// How an AI picks its move. Strategies read the shared per-round InfluenceMap and answer with
+// a direction code; the engine applies and clamps it. Implementations must not allocate per call.
+
+public interface MoveStrategy {
+    // Direction codes (same order as the replay format's move opcodes)
+    int UP = 0, DOWN = 1, LEFT = 2, RIGHT = 3, STAY = 4;
+
+    int chooseMove(InfluenceMap field, PlayerStore store, int slot, RandomSource rnd);
+
+    // Field layers this strategy reads; the engine only builds those
+    int layers();
+
+    // Whether one instance may choose moves for several players at once (region rounds need it)
+    default boolean isThreadSafe() { return false; }
+
+    static int dx(int dir) { return dir == LEFT ? -1 : dir == RIGHT ? 1 : 0; }
+    static int dy(int dir) { return dir == UP ? 1 : dir == DOWN ? -1 : 0; }
+
+    // Easy: heads for the centre, picking at random among the 3 best moves.
+    // Medium: also avoids (or hunts) by threat, picking among the 2 best.
+    // Hard: tree search (MctsStrategy). Reproducible searches ignore the wall clock so a seed
+    // (or a replay) always produces the same match.
+    static MoveStrategy forDifficulty(int difficulty, boolean reproducible) {
+        switch (difficulty) {
+            case 1: return new Field(InfluenceMap.ZONE, 3);
+            case 2: return new Field(InfluenceMap.THREAT, 2);
+            default: return new MctsStrategy(reproducible ? 0 : MctsStrategy.DEFAULT_BUDGET_NANOS,
+                                             MctsStrategy.DEFAULT_ITERATIONS, MctsStrategy.DEFAULT_WORKERS);
+        }
+    }
+
+    // Scores the five moves from the field and picks randomly among the best `spread` of them
+    final class Field implements MoveStrategy {
+        // Candidates in the order ties are broken
+        private static final int[] ORDER = {STAY, LEFT, RIGHT, DOWN, UP};
+        static final int DOOMED = 1 << 20;
+        static final int CENTRE_WEIGHT = 8;
+        // World loot: better items within this many tiles pull by level gain per tile of distance
+        static final int LOOT_RADIUS = 8;
+        static final int LOOT_WEIGHT = 4;
+
+        private final int layers;
+        private final int spread;
+
+        public Field(int layers, int spread) {
+            if (layers < InfluenceMap.ZONE || layers > InfluenceMap.LOOT) throw new IllegalArgumentException("Unknown layer count " + layers);
+            if (spread < 1 || spread > ORDER.length) throw new IllegalArgumentException("Spread must be 1.." + ORDER.length);
+            this.layers = layers;
+            this.spread = spread;
+        }
+
+        @Override public int layers() { return layers; }
+        // Keeps no state between calls
+        @Override public boolean isThreadSafe() { return true; }
+
+        @Override
+        public int chooseMove(InfluenceMap field, PlayerStore store, int slot, RandomSource rnd) {
+            int pick = spread == 1 ? 0 : rnd.nextInt(spread);
+            // One nearest-item query per move, not per candidate
+            WorldLoot loot = layers >= InfluenceMap.THREAT && !field.isFinalZone() ? field.getLoot() : null;
+            int item = loot == null ? WorldLoot.NONE
+                : loot.nearest(store.x[slot], store.y[slot], LOOT_RADIUS, store.weaponLevel[slot] + 1);
+            // Rank of each candidate = number of candidates strictly better, ties by ORDER
+            // (the k-th best without sorting or allocating)
+            int s0 = score(field, store, slot, ORDER[0], item), s1 = score(field, store, slot, ORDER[1], item);
+            int s2 = score(field, store, slot, ORDER[2], item), s3 = score(field, store, slot, ORDER[3], item);
+            int s4 = score(field, store, slot, ORDER[4], item);
+            for (int i = 0; i < ORDER.length; i++) {
+                int si = i == 0 ? s0 : i == 1 ? s1 : i == 2 ? s2 : i == 3 ? s3 : s4;
+                int rank = 0;
+                if (s0 > si || (s0 == si && 0 < i)) rank++;
+                if (s1 > si || (s1 == si && 1 < i)) rank++;
+                if (s2 > si || (s2 == si && 2 < i)) rank++;
+                if (s3 > si || (s3 == si && 3 < i)) rank++;
+                if (s4 > si || (s4 == si && 4 < i)) rank++;
+                if (rank == pick) return ORDER[i];
+            }
+            return STAY;
+        }
+
+        // Higher is better; item is the world loot item to head for, or WorldLoot.NONE
+        int score(InfluenceMap field, PlayerStore store, int slot, int dir, int item) {
+            int x = store.x[slot] + dx(dir), y = store.y[slot] + dy(dir);
+            if (!field.allows(x, y)) { x = store.x[slot]; y = store.y[slot]; } // refused, as in the engine
+            int score = -field.centreDistance(x, y);
+            if (layers == InfluenceMap.ZONE || field.isFinalZone()) return score;
+
+            score *= CENTRE_WEIGHT;
+            if (field.doomed(x, y)) score -= DOOMED;
+            // Look one field cell ahead in the direction of travel, so coarse cells still give a gradient
+            int step = field.getCellSize();
+            int cell = field.cell(store.x[slot] + dx(dir) * step, store.y[slot] + dy(dir) * step);
+            int own = InfluenceMap.power(store, slot);
+            long threat = field.threat(cell, own);
+            score -= (int) Math.max(-DOOMED / 2, Math.min(DOOMED / 2, threat / 4));
+            if (item != WorldLoot.NONE) {
+                WorldLoot loot = field.getLoot();
+                int gain = loot.level(item) - store.weaponLevel[slot];
+                score -= (Math.abs(loot.x(item) - x) + Math.abs(loot.y(item) - y)) * gain * LOOT_WEIGHT;
+            } else if (layers == InfluenceMap.LOOT && field.getLoot() == null) {
+                // Expected gain of a loot roll (5% chance, level 2..5) over the current weapon level
+                int gain = 0;
+                for (int lvl = 2; lvl <= 5; lvl++) gain += Math.max(0, lvl - store.weaponLevel[slot]);
+                score += gain * field.freeShare(cell, field.cell(store.x[slot], store.y[slot])) / 1024;
+            }
+            return score;
+        }
+    }
+}
\ No newline at end of file
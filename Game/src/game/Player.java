@@ -1,60 +1,97 @@
 package game;
 
+// A player is a view over one slot of a PlayerStore: hp, position, alive flag, loadout ids and
+// the stat totals live in the store's columns; only identity lives here. Ids are per match (the
+// slot + 1), so engines running side by side share nothing.
+
 public class Player {
-    private static int nextId = 1;
     private final int id;
     private final String name;
     private final boolean human;
-    private final Character character;
-    private Tool weapon;
-    private int currentHealth;
-    private int x, y;
-    private boolean alive;
-
-    public Player(String name, boolean human, Character character, Tool weapon) {
-        this.id = nextId++;
+    private final PlayerStore store;
+    private final int slot;
+    // Engine-side spatial index (null until the engine places the player)
+    private SpatialIndex index;
+
+    public Player(PlayerStore store, String name, boolean human, Character character, ToolType weapon) {
+        this(store, name, human, character.getId(), weapon.getId(), 1);
+    }
+
+    Player(PlayerStore store, String name, boolean human, int charId, int toolId, int level) {
         this.name = name;
         this.human = human;
-        this.character = character;
-        this.weapon = weapon;
-        this.currentHealth = getMaxHealth();
-        this.alive = true;
-        this.x = -1; this.y = -1;
+        this.store = store;
+        this.slot = store.add(charId, toolId, level);
+        this.id = slot + 1;
     }
 
     // --- Stat Calculation Methods ---
-    public int getMaxHealth() { return character.baseHealth; }
-    public int getTotalAttack() { return character.baseAttack + weapon.getAttackModifier(); }
-    public int getTotalDefense() { return character.baseDefense + weapon.getDefenseModifier(); }
-    public int getTotalSpeed() { return character.baseSpeed + weapon.getSpeedModifier(); }
-    public int getRangedReduction() { return weapon.getDamageReduction(); }
+    public int getMaxHealth() { return getCharacter().baseHealth; }
+    public int getTotalAttack() { return store.attack[slot]; }
+    public int getTotalDefense() { return store.defense[slot]; }
+    public int getTotalSpeed() { return store.speed[slot]; }
+    public int getRangedReduction() { return store.rangedReduction[slot]; }
 
     // --- Action Methods ---
-    public void equipWeapon(Tool t) { this.weapon = t; }
-    public void assignPos(int x, int y) { this.x = x; this.y = y; }
-    public void moveTo(int x, int y) { this.x = x; this.y = y; }
+    public void equipWeapon(ToolType type, int level) { store.equip(slot, type.getId(), level); }
+
+    public void equipWeapon(Tool t) { equipWeapon(t.getToolType(), t.getLevel()); }
+
+    public void assignPos(int x, int y) {
+        if (index != null && isAlive()) {
+            if (store.x[slot] < 0) index.add(slot, x, y);
+            else index.move(slot, store.x[slot], store.y[slot], x, y);
+        }
+        store.x[slot] = x; store.y[slot] = y;
+    }
+
+    public void moveTo(int x, int y) {
+        if (index != null && isAlive()) index.move(slot, store.x[slot], store.y[slot], x, y);
+        store.x[slot] = x; store.y[slot] = y;
+    }
 
     public void takeDamage(int d) {
-        currentHealth -= d;
-        if (currentHealth <= 0) { currentHealth = 0; alive = false; }
+        store.hp[slot] -= d;
+        if (store.hp[slot] <= 0 && isAlive()) {
+            store.hp[slot] = 0;
+            store.markDead(slot);
+            if (index != null && store.x[slot] >= 0) index.remove(slot, store.x[slot], store.y[slot]);
+        }
     }
 
-    public void levelUpWeapon() { weapon.levelUp(); }
+    // View over a slot restored from a snapshot, keeping its original id
+    Player(PlayerStore store, int slot, int id, String name, boolean human) {
+        this.id = id;
+        this.name = name;
+        this.human = human;
+        this.store = store;
+        this.slot = slot;
+    }
+
+    // Called by the engine before the first assignPos
+    void attach(SpatialIndex index) { this.index = index; }
+
+    public void levelUpWeapon() { store.equip(slot, store.toolType[slot], store.weaponLevel[slot] + 1); }
 
     // --- Getters ---
-    public Tool getWeapon() { return weapon; }
-    public boolean isAlive() { return alive; }
+    // A copy of the current weapon; changing it does not affect the player
+    public Tool getWeapon() { return new Tool(getWeaponType(), getWeaponLevel()); }
+    public ToolType getWeaponType() { return store.getContent().tool(store.toolType[slot]); }
+    public int getWeaponLevel() { return store.weaponLevel[slot]; }
+    public boolean isAlive() { return store.isAlive(slot); }
     public boolean isHuman() { return human; }
     public String getName() { return name; }
-    public int getX() { return x; }
-    public int getY() { return y; }
-    public Character getCharacter() { return character; }
-    public int getCurrentHealth() { return currentHealth; }
+    public int getX() { return store.x[slot]; }
+    public int getY() { return store.y[slot]; }
+    public Character getCharacter() { return store.getContent().character(store.charType[slot]); }
+    public int getCurrentHealth() { return store.hp[slot]; }
+    int getSlot() { return slot; }
+    int getId() { return id; }
 
     @Override
     public String toString() {
         return String.format("%s%s (HP:%d/%d, Class:%s, Wpn:%s L%d, Atk:%d, Def:%d, Spd:%d) @(%d,%d)",
-            human?"H":"A", id, currentHealth, getMaxHealth(), character.getClassName(), weapon.getName(), weapon.getLevel(),
-            getTotalAttack(), getTotalDefense(), getTotalSpeed(), x, y);
+            human?"H":"A", id, getCurrentHealth(), getMaxHealth(), getCharacter().getClassName(), getWeaponType().getName(), getWeaponLevel(),
+            getTotalAttack(), getTotalDefense(), getTotalSpeed(), getX(), getY());
     }
 }
\ No newline at end of file
@@ -0,0 +1,189 @@
+package game;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+// Column-oriented storage for per-player state. Player objects are thin views over one slot;
+// the engine's per-round scans walk these primitive arrays instead of chasing Player/Character/Tool
+// references. Stat totals are cached here and refreshed whenever the weapon changes.
+
+public final class PlayerStore {
+    int[] hp = new int[0];
+    int[] x = new int[0];
+    int[] y = new int[0];
+    int[] attack = new int[0];
+    int[] defense = new int[0];
+    int[] speed = new int[0];
+    int[] rangedReduction = new int[0];
+    int[] weaponDamage = new int[0];
+    int[] weaponLevel = new int[0];
+    int[] battleProfile = new int[0];
+    int[] charType = new int[0];
+    int[] toolType = new int[0];
+    private long[] aliveBits = new long[0];
+    // Dense set of living slots (swap-remove), with each slot's position in it
+    private int[] aliveSlots = new int[0];
+    private int[] alivePos = new int[0];
+    private int aliveCount;
+    // Slots whose speed changed since the scheduler last looked (may hold duplicates)
+    private int[] speedChanges = new int[16];
+    private int speedChangeCount;
+    private int size;
+    private final ContentRegistry content;
+    private final BattleTable battles;
+
+    public PlayerStore() { this(ContentRegistry.defaults()); }
+
+    public PlayerStore(ContentRegistry content) { this(content, 0); }
+
+    public PlayerStore(ContentRegistry content, int expectedPlayers) {
+        this.content = content;
+        this.battles = content.getBattleTable();
+        ensureCapacity(expectedPlayers);
+    }
+
+    public ContentRegistry getContent() { return content; }
+    BattleTable getBattleTable() { return battles; }
+
+    public int size() { return size; }
+
+    // Reserves a slot for a new, living, unplaced player with the given loadout
+    int add(int charId, int toolId, int level) {
+        int slot = size++;
+        ensureCapacity(size);
+        charType[slot] = charId;
+        hp[slot] = content.character(charId).baseHealth;
+        x[slot] = -1;
+        y[slot] = -1;
+        aliveBits[slot >>> 6] |= 1L << slot;
+        alivePos[slot] = aliveCount;
+        aliveSlots[aliveCount++] = slot;
+        // A new slot isn't a speed change: the scheduler queues it by its first speed
+        setWeapon(slot, toolId, level);
+        return slot;
+    }
+
+    // Sets the slot's weapon and recomputes the cached stat totals
+    void equip(int slot, int toolId, int lvl) {
+        int oldSpeed = speed[slot];
+        setWeapon(slot, toolId, lvl);
+        if (speed[slot] != oldSpeed) speedChanged(slot);
+    }
+
+    private void setWeapon(int slot, int toolId, int lvl) {
+        Character c = content.character(charType[slot]);
+        ToolType w = content.tool(toolId);
+        int newSpeed = c.baseSpeed + w.speedAt(lvl);
+        toolType[slot] = toolId;
+        attack[slot] = c.baseAttack + w.attackAt(lvl);
+        defense[slot] = c.baseDefense + w.defenseAt(lvl);
+        speed[slot] = newSpeed;
+        rangedReduction[slot] = w.reductionAt(lvl);
+        weaponDamage[slot] = w.damageAt(lvl);
+        weaponLevel[slot] = lvl;
+        battleProfile[slot] = battles.profile(charType[slot], toolId, lvl);
+    }
+
+    // --- Alive set ---
+    public boolean isAlive(int slot) { return (aliveBits[slot >>> 6] & (1L << slot)) != 0; }
+
+    void markDead(int slot) {
+        if (!isAlive(slot)) return;
+        aliveBits[slot >>> 6] &= ~(1L << slot);
+        int pos = alivePos[slot];
+        int last = aliveSlots[--aliveCount];
+        aliveSlots[pos] = last;
+        alivePos[last] = pos;
+    }
+
+    public int aliveCount() { return aliveCount; }
+
+    // i-th living slot, 0 <= i < aliveCount(). Order is arbitrary; when killing while iterating,
+    // walk from aliveCount()-1 down to 0 so the swap-remove only moves already visited slots.
+    public int aliveAt(int i) { return aliveSlots[i]; }
+
+    // --- Speed change feed for the TurnScheduler ---
+    int speedChangeCount() { return speedChangeCount; }
+    int speedChangeAt(int i) { return speedChanges[i]; }
+    void clearSpeedChanges() { speedChangeCount = 0; }
+
+    private void speedChanged(int slot) {
+        if (speedChangeCount == speedChanges.length) speedChanges = Arrays.copyOf(speedChanges, speedChangeCount * 2);
+        speedChanges[speedChangeCount++] = slot;
+    }
+
+    // --- Snapshots: per slot the loadout, hp and position, then the alive order and the speed
+    // changes the scheduler hasn't seen yet (the derived stat columns are recomputed) ---
+    int stateBytes() { return 12 + size * 24 + aliveCount * 4 + speedChangeCount * 4; }
+
+    void writeState(ByteBuffer buf) {
+        buf.putInt(size);
+        for (int s = 0; s < size; s++) {
+            buf.putInt(charType[s]).putInt(toolType[s]).putInt(weaponLevel[s]).putInt(hp[s]).putInt(x[s]).putInt(y[s]);
+        }
+        buf.putInt(aliveCount);
+        for (int i = 0; i < aliveCount; i++) buf.putInt(aliveSlots[i]);
+        buf.putInt(speedChangeCount);
+        for (int i = 0; i < speedChangeCount; i++) buf.putInt(speedChanges[i]);
+    }
+
+    static PlayerStore readState(ContentRegistry content, ByteBuffer buf) {
+        int n = buf.getInt();
+        // Sized before it is read, so check the count against the bytes left (24 a player)
+        if (n < 0 || n > buf.remaining() / 24) throw new IllegalArgumentException("Snapshot holds " + n + " players");
+        PlayerStore store = new PlayerStore(content, n);
+        for (int s = 0; s < n; s++) {
+            int charId = buf.getInt(), toolId = buf.getInt(), level = buf.getInt();
+            store.add(charId, toolId, level);
+            store.hp[s] = buf.getInt();
+            store.x[s] = buf.getInt();
+            store.y[s] = buf.getInt();
+        }
+        Arrays.fill(store.aliveBits, 0);
+        store.aliveCount = buf.getInt();
+        if (store.aliveCount < 0 || store.aliveCount > n) throw new IllegalArgumentException("Snapshot holds " + store.aliveCount + " living players");
+        for (int i = 0; i < store.aliveCount; i++) {
+            int s = buf.getInt();
+            if (s < 0 || s >= n) throw new IllegalArgumentException("Bad slot " + s + " in snapshot");
+            store.aliveSlots[i] = s;
+            store.alivePos[s] = i;
+            store.aliveBits[s >>> 6] |= 1L << s;
+        }
+        store.clearSpeedChanges();
+        for (int i = buf.getInt(); i > 0; i--) {
+            int s = buf.getInt();
+            if (s < 0 || s >= n) throw new IllegalArgumentException("Bad slot " + s + " in snapshot");
+            store.speedChanged(s);
+        }
+        return store;
+    }
+
+    // --- Column access ---
+    public int getHp(int slot) { return hp[slot]; }
+    public int getX(int slot) { return x[slot]; }
+    public int getY(int slot) { return y[slot]; }
+    public int getSpeed(int slot) { return speed[slot]; }
+    public int getWeaponLevel(int slot) { return weaponLevel[slot]; }
+    public int getCharType(int slot) { return charType[slot]; }
+    public int getToolType(int slot) { return toolType[slot]; }
+
+    private void ensureCapacity(int n) {
+        if (n <= hp.length) return;
+        int cap = Math.max(n, Math.max(16, hp.length * 2));
+        hp = Arrays.copyOf(hp, cap);
+        x = Arrays.copyOf(x, cap);
+        y = Arrays.copyOf(y, cap);
+        attack = Arrays.copyOf(attack, cap);
+        defense = Arrays.copyOf(defense, cap);
+        speed = Arrays.copyOf(speed, cap);
+        rangedReduction = Arrays.copyOf(rangedReduction, cap);
+        weaponDamage = Arrays.copyOf(weaponDamage, cap);
+        weaponLevel = Arrays.copyOf(weaponLevel, cap);
+        battleProfile = Arrays.copyOf(battleProfile, cap);
+        charType = Arrays.copyOf(charType, cap);
+        toolType = Arrays.copyOf(toolType, cap);
+        aliveBits = Arrays.copyOf(aliveBits, (cap + 63) >>> 6);
+        aliveSlots = Arrays.copyOf(aliveSlots, cap);
+        alivePos = Arrays.copyOf(alivePos, cap);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,53 @@
+package game;
+
+// Deterministic random numbers for the engine (SplitMix64). Unlike java.util.Random there is
+// no shared atomic state: every subsystem and every player gets its own stream derived from the
+// match seed and a stream id, so the numbers a stream produces don't depend on what other
+// streams did or on which thread asked. One instance must not be used by two threads at once.
+
+public final class RandomSource {
+    private static final long GOLDEN = 0x9E3779B97F4A7C15L;
+
+    private long state;
+
+    public RandomSource(long seed) { this.state = seed; }
+
+    // Stream `stream` of the given seed; different ids give statistically independent streams
+    public RandomSource(long seed, long stream) { this(mix(seed ^ mix(stream * GOLDEN + GOLDEN))); }
+
+    // Restarts this instance on a new seed (lets hot paths reuse one object)
+    public void reseed(long seed) { this.state = seed; }
+
+    // Where the stream is; reseed(state()) on another instance continues it exactly (snapshots)
+    long state() { return state; }
+
+    // A new stream whose seed is drawn from this one
+    public RandomSource split() { return new RandomSource(mix(nextLong())); }
+
+    public long nextLong() { return mix(state += GOLDEN); }
+
+    // Uniform in [0, bound), without modulo bias (Lemire's multiply-shift)
+    public int nextInt(int bound) {
+        if (bound <= 0) throw new IllegalArgumentException("Bound must be positive");
+        long m = (nextLong() >>> 32) * bound;
+        long low = m & 0xFFFFFFFFL;
+        if (low < bound) {
+            long threshold = (0x100000000L - bound) % bound;
+            while (low < threshold) {
+                m = (nextLong() >>> 32) * bound;
+                low = m & 0xFFFFFFFFL;
+            }
+        }
+        return (int) (m >>> 32);
+    }
+
+    // Uniform in [0, 1)
+    public double nextDouble() { return (nextLong() >>> 11) * 0x1.0p-53; }
+
+    // SplitMix64 finalizer
+    static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
\ No newline at end of file
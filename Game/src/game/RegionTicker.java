@@ -0,0 +1,221 @@
+package game;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+// The parallel half of a region round (GameConfig.setRegionSize). The map is split into the
+// spatial index's regions; every region plays its own players' turns on a fork/join pool:
+// pick a move, step, fight whoever is on the new tile (a Brawl when it's crowded) or roll for
+// loot. A region task only writes its own players' columns, its own tiles and its own buffers,
+// so the result does not depend on which thread runs which region, or how many there are.
+//
+// What a region can't settle alone is left to the engine's merge, which runs on one thread in
+// region order:
+//   events   - MOVED / BATTLE / LOOT / PICKUP records, replayed to commit deaths, weapon changes
+//              and listener calls in the order they happened inside the region
+//   migrants - players whose step leaves the region; they are off the index until the merge
+//              puts them on their new tile and resolves the encounter there
+// Damage lands during the region pass; deaths, level-ups and equips only at the merge, so a
+// weapon won this round fights from the next one. Events are fixed RECORD-int records.
+
+final class RegionTicker {
+    static final int RECORD = 5;
+    static final int MOVED = 0;  // slot
+    static final int BATTLE = 1; // attacker, defender, outcome, 1 if the loser died
+    static final int LOOT = 2;   // slot, tool id, level
+    static final int PICKUP = 3; // slot (world loot: the merge picks up whatever lies on its tile)
+
+    private final PlayerStore store;
+    private final SpatialIndex.Partitioned index;
+    private final MoveStrategy strategy;
+    private final InfluenceMap influence;
+    private final RandomSource[] random;
+    private final int toolCount;
+    private final double lootChance;
+    private final boolean worldLoot;
+    private final Region[] regions;
+    // Living slots grouped by region: members[start[r] .. start[r+1])
+    private final int[] start;
+    private final int[] fill;
+    private int[] members = new int[0];
+    private int[] regionOfAlive = new int[0];
+    private ForkJoinPool pool = ForkJoinPool.commonPool();
+    private final Zone zone;
+    private int zoneStep;
+
+    RegionTicker(PlayerStore store, SpatialIndex.Partitioned index, Zone zone, MoveStrategy strategy, InfluenceMap influence,
+                 RandomSource[] random, double lootChance, boolean worldLoot) {
+        if (!strategy.isThreadSafe()) throw new IllegalArgumentException("Region rounds need a thread-safe move strategy");
+        this.store = store;
+        this.index = index;
+        this.zone = zone;
+        this.strategy = strategy;
+        this.influence = influence;
+        this.random = random;
+        this.toolCount = store.getContent().toolCount();
+        this.lootChance = lootChance;
+        this.worldLoot = worldLoot;
+        regions = new Region[index.regionCount()];
+        for (int r = 0; r < regions.length; r++) regions[r] = new Region();
+        start = new int[regions.length + 1];
+        fill = new int[regions.length];
+    }
+
+    void setPool(ForkJoinPool pool) { this.pool = pool; }
+
+    int regionCount() { return regions.length; }
+    int[] events(int r) { return regions[r].events; }
+    int eventCount(int r) { return regions[r].eventCount; }
+    int[] migrants(int r) { return regions[r].migrants; }
+    int migrantCount(int r) { return regions[r].migrantCount; }
+
+    // Loot rolls in the last tick, over all regions
+    int lootRolls() {
+        int n = 0;
+        for (Region reg : regions) n += reg.lootRolls;
+        return n;
+    }
+
+    // Groups the living by region (a counting sort, stable in alive-set order) and runs every region
+    void tick() {
+        zoneStep = zone.getStep();
+        int alive = store.aliveCount();
+        if (members.length < alive) {
+            members = new int[store.size()];
+            regionOfAlive = new int[store.size()];
+        }
+        Arrays.fill(start, 0);
+        for (int i = 0; i < alive; i++) {
+            int s = store.aliveAt(i);
+            int r = index.regionOf(store.x[s], store.y[s]);
+            regionOfAlive[i] = r;
+            start[r + 1]++;
+        }
+        for (int r = 0; r < regions.length; r++) {
+            start[r + 1] += start[r];
+            fill[r] = start[r];
+        }
+        for (int i = 0; i < alive; i++) members[fill[regionOfAlive[i]]++] = store.aliveAt(i);
+        pool.invoke(new Span(0, regions.length));
+    }
+
+    private void tickRegion(int r) {
+        Region reg = regions[r];
+        reg.eventCount = 0;
+        reg.migrantCount = 0;
+        reg.lootRolls = 0;
+        for (int i = start[r]; i < start[r + 1]; i++) {
+            int s = members[i];
+            if (store.hp[s] <= 0) continue; // killed earlier this round, dies at the merge
+
+            int dir = strategy.chooseMove(influence, store, s, random[s]);
+            int ox = store.x[s], oy = store.y[s];
+            int nx = ox + MoveStrategy.dx(dir), ny = oy + MoveStrategy.dy(dir);
+            if (!zone.allows(zoneStep, nx, ny)) { nx = ox; ny = oy; }
+            store.x[s] = nx;
+            store.y[s] = ny;
+            if (index.regionOf(nx, ny) != r) {
+                index.remove(s, ox, oy);
+                reg.migrant(s);
+                continue;
+            }
+            index.move(s, ox, oy, nx, ny);
+            reg.event(MOVED, s, 0, 0, 0);
+
+            if (reg.brawl.gather(store, index, nx, ny)) {
+                brawl(reg);
+                continue;
+            }
+            int other = SpatialIndex.NONE;
+            for (int o = index.first(nx, ny); o != SpatialIndex.NONE; o = index.next(o)) {
+                if (o != s) { other = o; break; }
+            }
+            if (other != SpatialIndex.NONE) {
+                battle(reg, s, other);
+            } else if (worldLoot) {
+                // Items are shared across regions; only the merge touches them
+                reg.event(PICKUP, s, 0, 0, 0);
+            } else {
+                // Same draws as the engine's loot roll, from the player's own stream
+                RandomSource rnd = random[s];
+                reg.lootRolls++;
+                if (rnd.nextDouble() < lootChance) reg.event(LOOT, s, rnd.nextInt(toolCount), rnd.nextInt(4) + 2, 0);
+            }
+        }
+    }
+
+    private void battle(Region reg, int a, int b) {
+        int outcome = store.getBattleTable().outcome(store, a, b);
+        int loser = BattleTable.firstWins(outcome) ? b : a;
+        store.hp[loser] -= BattleTable.damage(outcome);
+        boolean killed = store.hp[loser] <= 0;
+        if (killed) {
+            store.hp[loser] = 0;
+            index.remove(loser, store.x[loser], store.y[loser]);
+        }
+        reg.event(BATTLE, a, b, outcome, killed ? 1 : 0);
+    }
+
+    // Same as the engine's brawl: all the damage first, then the duels as BATTLE records
+    private void brawl(Region reg) {
+        Brawl b = reg.brawl;
+        for (int i = 0; i < b.count; i++) {
+            int s = b.slots[i];
+            if (b.damage[i] == 0) continue;
+            store.hp[s] -= b.damage[i];
+            if (store.hp[s] <= 0) {
+                store.hp[s] = 0;
+                index.remove(s, store.x[s], store.y[s]);
+            }
+        }
+        for (int d = 0; d < b.count; d++) {
+            reg.event(BATTLE, b.attacker(d), b.defender(d), b.outcomes[d], b.lethal(store, d) ? 1 : 0);
+        }
+    }
+
+    // Splits the region range down to single regions for the work-stealing pool
+    private final class Span extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int from, to;
+
+        Span(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                tickRegion(from);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new Span(from, mid), new Span(mid, to));
+        }
+    }
+
+    // One region's output buffers, reused every round
+    private static final class Region {
+        int[] events = new int[RECORD * 16];
+        int eventCount; // ints used, a multiple of RECORD
+        int[] migrants = new int[16];
+        int migrantCount;
+        int lootRolls;
+        final Brawl brawl = new Brawl();
+
+        void event(int type, int a, int b, int c, int d) {
+            if (eventCount + RECORD > events.length) events = Arrays.copyOf(events, events.length * 2);
+            int[] e = events;
+            int i = eventCount;
+            e[i] = type; e[i + 1] = a; e[i + 2] = b; e[i + 3] = c; e[i + 4] = d;
+            eventCount = i + RECORD;
+        }
+
+        void migrant(int slot) {
+            if (migrantCount == migrants.length) migrants = Arrays.copyOf(migrants, migrantCount * 2);
+            migrants[migrantCount++] = slot;
+        }
+    }
+}
\ No newline at end of file
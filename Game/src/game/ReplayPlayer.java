@@ -0,0 +1,118 @@
+package game;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.NoSuchElementException;
+
+// Re-runs a recorded match. The file is memory-mapped and read in place, so long recordings
+// never have to be copied onto the heap.
+
+public class ReplayPlayer {
+    private final MappedByteBuffer data;
+    private final boolean interactive;
+    private final long seed;
+    private final GameConfig config;
+    private final int entriesStart;
+
+    private ReplayPlayer(MappedByteBuffer data) throws IOException {
+        this.data = data;
+        if (data.getInt() != ReplayRecorder.MAGIC) throw new IOException("Not a replay file");
+        byte version = data.get();
+        if (version != ReplayRecorder.VERSION) throw new IOException("Unsupported replay version " + version);
+        interactive = data.get() == ReplayRecorder.MODE_INTERACTIVE;
+        seed = data.getLong();
+        if (interactive) {
+            config = null;
+        } else {
+            config = new GameConfig()
+                .setNumAI(data.getInt())
+                .setDifficulty(data.get())
+                .setMapSize(data.getInt())
+                .setSpeedScaledTurns(data.get() != 0)
+                .setLootChance(data.getDouble())
+                .setShrinkInterval(data.getInt())
+                .setRegionSize(data.getInt())
+                .setZoneShape(Zone.Shape.values()[data.get()])
+                .setSeed(seed);
+            for (int i = data.getInt(); i > 0; i--) config.addShrinkPhase(data.getInt(), data.getInt());
+            config.setWorldLoot(data.get() != 0);
+        }
+        entriesStart = data.position();
+    }
+
+    public static ReplayPlayer open(Path file) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            return new ReplayPlayer(ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size()));
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Corrupt replay: truncated header", e);
+        } catch (RuntimeException e) {
+            // A bad zone shape or setting in the header
+            throw new IOException("Corrupt replay: " + e.getMessage(), e);
+        }
+    }
+
+    public long getSeed() { return seed; }
+    public boolean isInteractive() { return interactive; }
+
+    // Full speed, nothing rendered. Returns the winner (null if nobody survived).
+    public Player play() { return play(GameOutput.NONE, null); }
+
+    // Shows the match on 'out' and waits for a line from 'pause' after every round
+    public Player step(GameOutput out, GameInput pause) {
+        return play(out, () -> {
+            out.print("[replay] Enter for next round...");
+            pause.readLine();
+        });
+    }
+
+    private Player play(GameOutput out, Runnable afterRound) {
+        ByteBuffer entries = data.duplicate();
+        entries.position(entriesStart);
+        GameEngine engine;
+        if (interactive) {
+            engine = new GameEngine(out, new Reader(entries), seed);
+            engine.setAfterRound(afterRound);
+            engine.setupGame();
+            if (engine.getAliveCount() > 1) engine.startGame();
+        } else {
+            engine = new GameEngine(out);
+            engine.setAfterRound(afterRound);
+            engine.setupGame(config);
+            engine.startGame();
+        }
+        return engine.getWinner();
+    }
+
+    // Decodes recorded lines straight out of the mapped buffer
+    private static final class Reader implements GameInput {
+        private final ByteBuffer buf;
+
+        Reader(ByteBuffer buf) { this.buf = buf; }
+
+        @Override public String readLine() {
+            try {
+                int op = buf.get();
+                if (op == ReplayRecorder.OP_EMPTY) return "";
+                if (op >= ReplayRecorder.OP_MOVE && op < ReplayRecorder.OP_MOVE + ReplayRecorder.MOVES.length) {
+                    return ReplayRecorder.MOVES[op - ReplayRecorder.OP_MOVE];
+                }
+                if (op == ReplayRecorder.OP_SMALL_INT) return Integer.toString(buf.get());
+                if (op == ReplayRecorder.OP_TEXT) {
+                    byte[] utf = new byte[buf.getShort() & 0xFFFF];
+                    buf.get(utf);
+                    return new String(utf, StandardCharsets.UTF_8);
+                }
+                throw new IllegalStateException("Corrupt replay entry " + op);
+            } catch (BufferUnderflowException e) {
+                // Same signal a closed console gives
+                throw new NoSuchElementException("End of replay");
+            }
+        }
+    }
+}
\ No newline at end of file
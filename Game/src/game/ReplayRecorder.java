@@ -0,0 +1,120 @@
+package game;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+// Records a match as a compact binary stream: a header with the seed and how the match was
+// set up, then every line a human typed. Since the engine is deterministic for a given seed,
+// that is all ReplayPlayer needs to reproduce the match exactly.
+//
+// Header: magic, version, mode (0 = interactive, 1 = headless config), seed, [config].
+// Entries: one opcode byte, with moves and small numbers needing no payload at all.
+
+public class ReplayRecorder implements GameInput {
+    static final int MAGIC = 0x42525250; // "BRRP"
+    // 2: engine randomness moved to RandomSource streams, config adds loot chance and shrink interval
+    // 3: config adds the region size
+    // 4: config adds the zone shape and the later shrink phases
+    // 5: three or more players on a tile brawl instead of the newcomer fighting one of them
+    // 6: config adds world loot
+    static final byte VERSION = 6;
+    static final byte MODE_INTERACTIVE = 0;
+    static final byte MODE_HEADLESS = 1;
+
+    static final byte OP_EMPTY = 0;
+    static final byte OP_MOVE = 1;      // OP_MOVE + index into MOVES
+    static final byte OP_SMALL_INT = 6; // + 1 byte, 0..127 written in canonical form
+    static final byte OP_TEXT = 7;      // + 2 byte length + UTF-8 bytes
+    static final String[] MOVES = {"UP", "DOWN", "LEFT", "RIGHT", "STAY"};
+
+    private final GameInput source;
+    private final DataOutputStream stream;
+
+    private ReplayRecorder(GameInput source, Path file, long seed, GameConfig config) {
+        this.source = source;
+        try {
+            stream = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)));
+            stream.writeInt(MAGIC);
+            stream.writeByte(VERSION);
+            stream.writeByte(config == null ? MODE_INTERACTIVE : MODE_HEADLESS);
+            stream.writeLong(seed);
+            if (config != null) {
+                stream.writeInt(config.getNumAI());
+                stream.writeByte(config.getDifficulty());
+                stream.writeInt(config.getMapSize());
+                stream.writeBoolean(config.isSpeedScaledTurns());
+                stream.writeDouble(config.getLootChance());
+                stream.writeInt(config.getShrinkInterval());
+                stream.writeInt(config.getRegionSize());
+                stream.writeByte(config.getZoneShape().ordinal());
+                stream.writeInt(config.getShrinkPhaseCount() - 1);
+                for (int i = 1; i < config.getShrinkPhaseCount(); i++) {
+                    stream.writeInt(config.getShrinkPhaseStart(i));
+                    stream.writeInt(config.getShrinkPhaseInterval(i));
+                }
+                stream.writeBoolean(config.isWorldLoot());
+            }
+            stream.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Wraps a console game: pass the result to the engine as its input
+    public static ReplayRecorder interactive(GameInput source, Path file, long seed) {
+        return new ReplayRecorder(source, file, seed, null);
+    }
+
+    // A headless match has no input, so the recording is just the header
+    public static void headless(GameConfig config, Path file) {
+        if (!config.hasSeed()) throw new IllegalArgumentException("Only seeded matches can be recorded");
+        new ReplayRecorder(null, file, config.getSeed(), config).close();
+    }
+
+    @Override
+    public String readLine() {
+        String line = source.readLine();
+        try {
+            write(line);
+            stream.flush(); // human speed, and a crash should not lose the match
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return line;
+    }
+
+    private void write(String line) throws IOException {
+        if (line.isEmpty()) { stream.writeByte(OP_EMPTY); return; }
+        for (int i = 0; i < MOVES.length; i++) {
+            if (MOVES[i].equals(line)) { stream.writeByte(OP_MOVE + i); return; }
+        }
+        if (line.length() <= 3 && line.chars().allMatch(java.lang.Character::isDigit)) {
+            int v = Integer.parseInt(line);
+            if (v <= 127 && Integer.toString(v).equals(line)) {
+                stream.writeByte(OP_SMALL_INT);
+                stream.writeByte(v);
+                return;
+            }
+        }
+        byte[] utf = line.getBytes(StandardCharsets.UTF_8);
+        int len = Math.min(utf.length, 0xFFFF);
+        stream.writeByte(OP_TEXT);
+        stream.writeShort(len);
+        stream.write(utf, 0, len);
+    }
+
+    @Override
+    public void close() {
+        try {
+            stream.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (source != null) source.close();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,241 @@
+package game;
+
+import java.util.Arrays;
+
+// Tracks which players stand on which tile so encounter checks don't scan the whole player list.
+// Players are referenced by slot (their position in the engine's player list). Each tile keeps
+// an intrusive doubly-linked list of slots, so add/remove/move and "first player on tile" are O(1).
+// Only living players are indexed; Player removes itself when it dies.
+
+public abstract class SpatialIndex {
+    static final int NONE = -1;
+
+    // Coarse occupancy: players per block of 2^blockShift x 2^blockShift tiles, at most
+    // MAX_BLOCKS a side. Lets the minimap and other overviews skip the per-tile lists.
+    static final int MAX_BLOCKS = 128;
+
+    private int[] next = new int[0];
+    private int[] prev = new int[0];
+    private final int blockShift;
+    private final int blocksPerSide;
+    private final int[] blockCounts;    // null for head-only storage
+
+    protected SpatialIndex(int mapSize) {
+        this(mapSize, true);
+    }
+
+    // Without block counts the index only stores list heads (Partitioned's regions): the owner
+    // keeps the counts and never calls add/remove on it
+    SpatialIndex(int mapSize, boolean blockCounted) {
+        int shift = 0;
+        while ((mapSize + (1 << shift) - 1) >> shift > MAX_BLOCKS) shift++;
+        blockShift = shift;
+        blocksPerSide = (mapSize + (1 << shift) - 1) >> shift;
+        blockCounts = blockCounted ? new int[blocksPerSide * blocksPerSide] : null;
+    }
+
+    // Dense maps use a flat grid of list heads, big sparse maps a packed-long hash
+    public static SpatialIndex create(int mapSize, int expectedPlayers) {
+        long cells = (long) mapSize * mapSize;
+        if (cells <= 1 << 22 || cells <= (long) expectedPlayers * 8) return new Grid(mapSize);
+        return new Sparse(mapSize, expectedPlayers);
+    }
+
+    // Split into square regions of 2^regionShift tiles a side (at least one block, so no two regions
+    // share a block count) that each own their tiles' list heads. Updates confined to different
+    // regions touch disjoint memory and may run on different threads; see RegionTicker.
+    static Partitioned partitioned(int mapSize, int expectedPlayers, int regionSize) {
+        return new Partitioned(mapSize, expectedPlayers, regionSize);
+    }
+
+    public int getBlockShift() { return blockShift; }
+    public int getBlocksPerSide() { return blocksPerSide; }
+    public int blockCount(int bx, int by) { return blockCounts[by * blocksPerSide + bx]; }
+
+    protected abstract int head(int x, int y);
+    protected abstract void setHead(int x, int y, int slot);
+
+    public int first(int x, int y) { return head(x, y); }
+    public int next(int slot) { return next[slot]; }
+
+    public int countAt(int x, int y) {
+        int n = 0;
+        for (int s = head(x, y); s != NONE; s = next[s]) n++;
+        return n;
+    }
+
+    public void add(int slot, int x, int y) {
+        ensureCapacity(slot + 1);
+        int h = head(x, y);
+        next[slot] = h;
+        prev[slot] = NONE;
+        if (h != NONE) prev[h] = slot;
+        setHead(x, y, slot);
+        blockCounts[(y >> blockShift) * blocksPerSide + (x >> blockShift)]++;
+    }
+
+    public void remove(int slot, int x, int y) {
+        int n = next[slot], p = prev[slot];
+        if (p != NONE) next[p] = n;
+        else setHead(x, y, n);
+        if (n != NONE) prev[n] = p;
+        next[slot] = prev[slot] = NONE;
+        blockCounts[(y >> blockShift) * blocksPerSide + (x >> blockShift)]--;
+    }
+
+    public void move(int slot, int fromX, int fromY, int toX, int toY) {
+        if (fromX == toX && fromY == toY) return;
+        remove(slot, fromX, fromY);
+        add(slot, toX, toY);
+    }
+
+    private void ensureCapacity(int n) {
+        if (n <= next.length) return;
+        int cap = Math.max(n, next.length * 2);
+        next = Arrays.copyOf(next, cap);
+        prev = Arrays.copyOf(prev, cap);
+    }
+
+    // --- Flat grid: one int per tile ---
+    static final class Grid extends SpatialIndex {
+        private final int size;
+        private final int[] heads;
+
+        Grid(int size) {
+            this(size, true);
+        }
+
+        Grid(int size, boolean blockCounted) {
+            super(size, blockCounted);
+            this.size = size;
+            this.heads = new int[size * size];
+            Arrays.fill(heads, NONE);
+        }
+
+        @Override protected int head(int x, int y) { return heads[y * size + x]; }
+        @Override protected void setHead(int x, int y, int slot) { heads[y * size + x] = slot; }
+    }
+
+    // --- One Grid or Sparse per region, chosen by the same rule as create(). The regions are
+    // head-only; the block counts live here, once for the whole map ---
+    static final class Partitioned extends SpatialIndex {
+        private final int regionShift;
+        private final int regionsPerSide;
+        private final SpatialIndex[] parts;
+
+        Partitioned(int mapSize, int expectedPlayers, int regionSize) {
+            super(mapSize);
+            int shift = getBlockShift();
+            while (1 << shift < regionSize) shift++;
+            regionShift = shift;
+            regionsPerSide = (mapSize + (1 << shift) - 1) >> shift;
+            parts = new SpatialIndex[regionsPerSide * regionsPerSide];
+            long cells = (long) mapSize * mapSize;
+            boolean dense = cells <= 1 << 22 || cells <= (long) expectedPlayers * 8;
+            int perRegion = expectedPlayers / parts.length + 1;
+            for (int r = 0; r < parts.length; r++) {
+                parts[r] = dense ? new Grid(1 << shift, false) : new Sparse(1 << shift, perRegion, false);
+            }
+        }
+
+        int getRegionShift() { return regionShift; }
+        int getRegionsPerSide() { return regionsPerSide; }
+        int regionCount() { return parts.length; }
+        int regionOf(int x, int y) { return (y >> regionShift) * regionsPerSide + (x >> regionShift); }
+
+        @Override protected int head(int x, int y) {
+            int mask = (1 << regionShift) - 1;
+            return parts[regionOf(x, y)].head(x & mask, y & mask);
+        }
+
+        @Override protected void setHead(int x, int y, int slot) {
+            int mask = (1 << regionShift) - 1;
+            parts[regionOf(x, y)].setHead(x & mask, y & mask, slot);
+        }
+    }
+
+    // --- Open-addressing hash keyed by the packed (x,y) long; empty tiles are not stored ---
+    static final class Sparse extends SpatialIndex {
+        private static final long EMPTY = Long.MIN_VALUE;
+        private long[] keys;
+        private int[] vals;
+        private int size;
+
+        Sparse(int mapSize, int expected) {
+            this(mapSize, expected, true);
+        }
+
+        Sparse(int mapSize, int expected, boolean blockCounted) {
+            super(mapSize, blockCounted);
+            int cap = Integer.highestOneBit(Math.max(16, expected * 2 - 1)) << 1;
+            keys = new long[cap];
+            vals = new int[cap];
+            Arrays.fill(keys, EMPTY);
+        }
+
+        static long pack(int x, int y) { return ((long) x << 32) | (y & 0xFFFFFFFFL); }
+
+        private static int mix(long k) {
+            k *= 0x9E3779B97F4A7C15L;
+            return (int) (k ^ (k >>> 32));
+        }
+
+        private int find(long key) {
+            int mask = keys.length - 1;
+            for (int i = mix(key) & mask; ; i = (i + 1) & mask) {
+                if (keys[i] == key || keys[i] == EMPTY) return i;
+            }
+        }
+
+        @Override protected int head(int x, int y) {
+            int i = find(pack(x, y));
+            return keys[i] == EMPTY ? NONE : vals[i];
+        }
+
+        @Override protected void setHead(int x, int y, int slot) {
+            long key = pack(x, y);
+            int i = find(key);
+            if (slot == NONE) {
+                if (keys[i] != EMPTY) delete(i);
+                return;
+            }
+            if (keys[i] == EMPTY) {
+                keys[i] = key;
+                if (++size * 2 > keys.length) { vals[i] = slot; rehash(); return; }
+            }
+            vals[i] = slot;
+        }
+
+        // Backward-shift deletion keeps probe chains intact without tombstones
+        private void delete(int i) {
+            int mask = keys.length - 1;
+            size--;
+            int j = i;
+            while (true) {
+                j = (j + 1) & mask;
+                if (keys[j] == EMPTY) break;
+                int home = mix(keys[j]) & mask;
+                boolean between = i <= j ? (i < home && home <= j) : (i < home || home <= j);
+                if (between) continue;
+                keys[i] = keys[j];
+                vals[i] = vals[j];
+                i = j;
+            }
+            keys[i] = EMPTY;
+        }
+
+        private void rehash() {
+            long[] oldKeys = keys;
+            int[] oldVals = vals;
+            keys = new long[oldKeys.length * 2];
+            vals = new int[oldVals.length * 2];
+            Arrays.fill(keys, EMPTY);
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] == EMPTY) continue;
+                int j = find(oldKeys[i]);
+                keys[j] = oldKeys[i];
+                vals[j] = oldVals[i];
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,157 @@
+package game;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+// Balance sweeps: runs matchesPerPoint seeded AI-only matches for every combination of the
+// varied parameters and writes one CSV row per combination as soon as it is done. Matches are
+// split over a fork/join pool; each leaf task folds its matches into one MatchStats, so memory
+// stays flat however many matches run. Every point uses the same seeds (seed, seed+1, ...),
+// which keeps the noise between points down.
+//
+// Parameters: numAI, mapSize, difficulty, lootChance, worldLoot, shrinkInterval, zone (square, circle or
+// moving), or a content number as "<Class>.<stat>" / "<Tool>.<param>" (see ContentRegistry.with).
+
+public final class SweepRunner {
+    // Matches per leaf task
+    private static final int LEAF = 64;
+
+    private final GameConfig base;
+    private final int matchesPerPoint;
+    private final ForkJoinPool pool;
+    private final List<String> keys = new ArrayList<>();
+    private final List<String[]> values = new ArrayList<>();
+    private long seed = 1;
+
+    public SweepRunner(GameConfig base, int matchesPerPoint) {
+        this(base, matchesPerPoint, ForkJoinPool.commonPool());
+    }
+
+    public SweepRunner(GameConfig base, int matchesPerPoint, ForkJoinPool pool) {
+        if (matchesPerPoint < 1) throw new IllegalArgumentException("Need at least one match per point");
+        // A strategy instance keeps per-match search state, so it can't be shared by parallel matches
+        if (base.getMoveStrategy() != null) throw new IllegalArgumentException("Sweeps pick the AI from the difficulty");
+        this.base = base.copy().setLogCapacity(64).setLogSpillFile(null); // nobody reads the logs
+        this.matchesPerPoint = matchesPerPoint;
+        this.pool = pool;
+    }
+
+    public SweepRunner vary(String key, String... vals) {
+        if (vals.length == 0) throw new IllegalArgumentException("No values for " + key);
+        // Fails early on unknown keys and bad values rather than halfway through a sweep
+        for (String v : vals) apply(base.copy(), key, v);
+        keys.add(key);
+        values.add(vals.clone());
+        return this;
+    }
+
+    // First match seed of every point
+    public SweepRunner setSeed(long seed) { this.seed = seed; return this; }
+
+    public int pointCount() {
+        int n = 1;
+        for (String[] v : values) n *= v.length;
+        return n;
+    }
+
+    // Runs the whole grid, writing the header and then one row per point (flushed when written
+    // to something Flushable). Returns the number of points.
+    public int run(Appendable out) throws IOException {
+        ContentRegistry content = base.getContent();
+        StringBuilder row = new StringBuilder();
+        for (String k : keys) row.append(k).append(',');
+        row.append("matches,no_winner,mean_rounds");
+        for (Character c : content.getCharacters()) row.append(",win_").append(c.getClassName());
+        for (ToolType t : content.getTools()) row.append(",win_").append(t.getName());
+        for (int lvl = 1; lvl < MatchStats.MAX_KILL_LEVEL; lvl++) row.append(",kills_L").append(lvl);
+        row.append(",kills_L").append(MatchStats.MAX_KILL_LEVEL).append("plus\n");
+        write(out, row);
+
+        int points = pointCount();
+        int[] pick = new int[keys.size()];
+        for (int p = 0; p < points; p++) {
+            // Odometer over the grid, last key fastest
+            for (int k = keys.size() - 1, rest = p; k >= 0; k--) {
+                pick[k] = rest % values.get(k).length;
+                rest /= values.get(k).length;
+            }
+            GameConfig config = base.copy();
+            for (int k = 0; k < keys.size(); k++) apply(config, keys.get(k), values.get(k)[pick[k]]);
+            MatchStats stats = pool.invoke(new Batch(config, seed, 0, matchesPerPoint));
+
+            row.setLength(0);
+            for (int k = 0; k < keys.size(); k++) row.append(values.get(k)[pick[k]]).append(',');
+            row.append(stats.getMatches()).append(',').append(stats.getNoWinner()).append(',')
+               .append(String.format(Locale.ROOT, "%.3f", stats.getMeanRounds()));
+            for (int c = 0; c < content.characterCount(); c++) row.append(String.format(Locale.ROOT, ",%.4f", stats.getWinRateByClass(c)));
+            for (int t = 0; t < content.toolCount(); t++) row.append(String.format(Locale.ROOT, ",%.4f", stats.getWinRateByTool(t)));
+            for (int lvl = 1; lvl <= MatchStats.MAX_KILL_LEVEL; lvl++) row.append(',').append(stats.getKillsAtLevel(lvl));
+            row.append('\n');
+            write(out, row);
+        }
+        return points;
+    }
+
+    private static void write(Appendable out, CharSequence s) throws IOException {
+        out.append(s);
+        if (out instanceof Flushable) ((Flushable) out).flush();
+    }
+
+    static void apply(GameConfig config, String key, String value) {
+        try {
+            switch (key) {
+                case "numAI": config.setNumAI(Integer.parseInt(value)); break;
+                case "mapSize": config.setMapSize(Integer.parseInt(value)); break;
+                case "difficulty": config.setDifficulty(Integer.parseInt(value)); break;
+                case "lootChance": config.setLootChance(Double.parseDouble(value)); break;
+                case "worldLoot": config.setWorldLoot(Boolean.parseBoolean(value)); break;
+                case "shrinkInterval": config.setShrinkInterval(Integer.parseInt(value)); break;
+                case "zone": config.setZoneShape(Zone.Shape.valueOf(value.toUpperCase(Locale.ROOT))); break;
+                default: config.setContent(config.getContent().with(key, Integer.parseInt(value)));
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Bad value '" + value + "' for " + key);
+        }
+    }
+
+    // Matches [from, to) of one point
+    private static final class Batch extends RecursiveTask<MatchStats> {
+        private static final long serialVersionUID = 1L;
+
+        private final GameConfig config;
+        private final long seed;
+        private final int from, to;
+
+        Batch(GameConfig config, long seed, int from, int to) {
+            this.config = config;
+            this.seed = seed;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected MatchStats compute() {
+            if (to - from <= LEAF) {
+                MatchStats stats = new MatchStats(config.getContent());
+                GameConfig c = config.copy(); // the seed changes per match
+                for (int i = from; i < to; i++) {
+                    GameEngine engine = new GameEngine(GameOutput.NONE);
+                    engine.addListener(stats);
+                    engine.runMatch(c.setSeed(seed + i));
+                }
+                return stats;
+            }
+            int mid = (from + to) >>> 1;
+            Batch left = new Batch(config, seed, from, mid);
+            left.fork();
+            MatchStats stats = new Batch(config, seed, mid, to).compute();
+            stats.merge(left.join());
+            return stats;
+        }
+    }
+}
\ No newline at end of file
@@ -1,25 +1,26 @@
 package game;
 
-public abstract class Tool implements Modifiable {
-    protected String name;
+// A concrete tool: a type from the registry at some level. Players don't hold these (they
+// keep type id + level in the PlayerStore); this is the value handed out through the API.
+
+public class Tool implements Modifiable {
+    protected ToolType type;
     protected int level;
-    protected int baseDamage;
 
-    public Tool(String name, int baseDamage) {
-        this.name = name;
-        this.baseDamage = baseDamage;
-        this.level = 1;
+    public Tool(ToolType type, int level) {
+        this.type = type;
+        this.level = level;
     }
 
     public void levelUp() { level++; }
-    public String getName() { return name; }
+    public String getName() { return type.getName(); }
     public int getLevel() { return level; }
-    // Damage increases by 5 per level
-    public int getCurrentDamage() { return baseDamage + (level * 5); }
-    public abstract String getType();
+    public String getType() { return type.getKind().getLabel(); }
+    public ToolType getToolType() { return type; }
+    public int getCurrentDamage() { return type.damageAt(level); }
 
-    @Override public int getAttackModifier() { return level * 2; }
-    @Override public int getDefenseModifier() { return 0; }
-    @Override public int getSpeedModifier() { return 0; }
-    @Override public int getDamageReduction() { return 0; }
+    @Override public int getAttackModifier() { return type.attackAt(level); }
+    @Override public int getDefenseModifier() { return type.defenseAt(level); }
+    @Override public int getSpeedModifier() { return type.speedAt(level); }
+    @Override public int getDamageReduction() { return type.reductionAt(level); }
 }
\ No newline at end of file
@@ -0,0 +1,66 @@
+package game;
+
+// A kind of tool from the content registry: shared and immutable, with its stats for each
+// level precomputed into tables. Players and loot only carry (type id, level).
+
+public final class ToolType {
+    public enum Kind {
+        MELEE("Melee"), RANGED("Ranged"), DEFENSE("Defense");
+
+        private final String label;
+        Kind(String label) { this.label = label; }
+        public String getLabel() { return label; }
+    }
+
+    // Levels with a table entry; higher levels (rare) use the formula
+    static final int TABLE_LEVELS = 64;
+
+    private final int id;
+    private final String name;
+    private final Kind kind;
+    private final int baseDamage, damagePerLevel, attackPerLevel, defensePerLevel, speedPerLevel, reductionPerLevel;
+    private final int[] damage = new int[TABLE_LEVELS + 1];
+    private final int[] attack = new int[TABLE_LEVELS + 1];
+    private final int[] defense = new int[TABLE_LEVELS + 1];
+    private final int[] speed = new int[TABLE_LEVELS + 1];
+    private final int[] reduction = new int[TABLE_LEVELS + 1];
+
+    ToolType(int id, String name, Kind kind, int baseDamage, int damagePerLevel, int attackPerLevel,
+             int defensePerLevel, int speedPerLevel, int reductionPerLevel) {
+        this.id = id;
+        this.name = name;
+        this.kind = kind;
+        this.baseDamage = baseDamage;
+        this.damagePerLevel = damagePerLevel;
+        this.attackPerLevel = attackPerLevel;
+        this.defensePerLevel = defensePerLevel;
+        this.speedPerLevel = speedPerLevel;
+        this.reductionPerLevel = reductionPerLevel;
+        for (int lvl = 0; lvl <= TABLE_LEVELS; lvl++) {
+            damage[lvl] = baseDamage + damagePerLevel * lvl;
+            attack[lvl] = attackPerLevel * lvl;
+            defense[lvl] = defensePerLevel * lvl;
+            speed[lvl] = speedPerLevel * lvl;
+            reduction[lvl] = reductionPerLevel * lvl;
+        }
+    }
+
+    public int getId() { return id; }
+    public String getName() { return name; }
+    public Kind getKind() { return kind; }
+
+    // --- Stats at a weapon level ---
+    public int damageAt(int lvl) { return lvl <= TABLE_LEVELS ? damage[lvl] : baseDamage + damagePerLevel * lvl; }
+    public int attackAt(int lvl) { return lvl <= TABLE_LEVELS ? attack[lvl] : attackPerLevel * lvl; }
+    public int defenseAt(int lvl) { return lvl <= TABLE_LEVELS ? defense[lvl] : defensePerLevel * lvl; }
+    public int speedAt(int lvl) { return lvl <= TABLE_LEVELS ? speed[lvl] : speedPerLevel * lvl; }
+    public int reductionAt(int lvl) { return lvl <= TABLE_LEVELS ? reduction[lvl] : reductionPerLevel * lvl; }
+
+    // Parameters as written in the content file (used when deriving modified content)
+    public int getBaseDamage() { return baseDamage; }
+    public int getDamagePerLevel() { return damagePerLevel; }
+    public int getAttackPerLevel() { return attackPerLevel; }
+    public int getDefensePerLevel() { return defensePerLevel; }
+    public int getSpeedPerLevel() { return speedPerLevel; }
+    public int getReductionPerLevel() { return reductionPerLevel; }
+}
\ No newline at end of file
@@ -0,0 +1,283 @@
+package game;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+// Decides who acts next. Players are queued once and only moved when their speed changes,
+// so no per-round sorting is needed. Usage per round:
+//     scheduler.beginRound();
+//     for (int s = scheduler.nextTurn(); s != TurnScheduler.NONE; s = scheduler.nextTurn()) { ... }
+// Dead players are dropped lazily when the cursor reaches them. Equal speeds act in join (slot)
+// order in the classic mode, as a stable sort by speed would have them, also after a speed change.
+
+public abstract class TurnScheduler {
+    static final int NONE = -1;
+
+    protected final PlayerStore store;
+    protected int[] next = new int[0];
+
+    protected TurnScheduler(PlayerStore store) { this.store = store; }
+
+    // speedScaled = false: everyone acts once per round, fastest first (the classic order)
+    // speedScaled = true: speed sets how often a player acts on a finer tick clock
+    public static TurnScheduler create(PlayerStore store, boolean speedScaled) {
+        if (!speedScaled) {
+            TurnScheduler s = new SpeedBuckets(store);
+            // Join order is the tie-break for equal speed
+            for (int slot = 0; slot < store.size(); slot++) {
+                if (store.isAlive(slot)) s.add(slot);
+            }
+            return s;
+        }
+
+        // Everyone shares the first tick, so queue it fastest first (one sort, at setup only)
+        TurnScheduler s = new TimingWheel(store);
+        Integer[] order = new Integer[store.size()];
+        for (int slot = 0; slot < order.length; slot++) order[slot] = slot;
+        Arrays.sort(order, (a, b) -> Integer.compare(store.getSpeed(b), store.getSpeed(a)));
+        for (int slot : order) {
+            if (store.isAlive(slot)) s.add(slot);
+        }
+        return s;
+    }
+
+    protected abstract void add(int slot);
+    public abstract void beginRound();
+    public abstract int nextTurn();
+
+    // --- Snapshots (between rounds): the queues in order, without the dead still linked in ---
+    abstract int stateBytes();
+    abstract void writeState(ByteBuffer buf);
+    protected abstract void readQueues(ByteBuffer buf);
+
+    static TurnScheduler readState(PlayerStore store, boolean speedScaled, ByteBuffer buf) {
+        TurnScheduler s = speedScaled ? new TimingWheel(store) : new SpeedBuckets(store);
+        s.readQueues(buf);
+        return s;
+    }
+
+    // A queued slot from a snapshot; the queues grow to the highest slot, so it is checked first
+    protected int readSlot(ByteBuffer buf) {
+        int s = buf.getInt();
+        if (s < 0 || s >= store.size()) throw new IllegalArgumentException("Bad slot " + s + " in snapshot");
+        return s;
+    }
+
+    // Living slots of the list starting at `head`, count first
+    protected void writeList(ByteBuffer buf, int head) {
+        int at = buf.position();
+        buf.putInt(0);
+        int n = 0;
+        for (int s = head; s != NONE; s = next[s]) {
+            if (!store.isAlive(s)) continue;
+            buf.putInt(s);
+            n++;
+        }
+        buf.putInt(at, n);
+    }
+
+    protected void ensureCapacity(int n) {
+        if (n > next.length) next = Arrays.copyOf(next, Math.max(n, next.length * 2));
+    }
+
+    // --- Classic mode: one bucket per speed value, walked from fastest to slowest ---
+    static final class SpeedBuckets extends TurnScheduler {
+        private static final int PENDING = -1;
+        private int[] heads = new int[0];
+        private int[] tails = new int[0];
+        private int[] prev = new int[0];
+        private int[] queuedSpeed = new int[0];
+        // Re-queues of the round being started, and per bucket the last slot merged into it
+        private int[] pending = new int[16];
+        private int[] mergedUpTo = new int[0];
+        private int bucket = -1;
+        private int cursor = NONE;
+
+        SpeedBuckets(PlayerStore store) { super(store); }
+
+        @Override protected void add(int slot) { link(slot, Math.max(0, store.getSpeed(slot))); }
+
+        // Puts a re-queued slot back in bucket b in slot order. Slots come in ascending order
+        // within a round, so the search carries on from the previous insert into the same bucket
+        // and each bucket is walked at most once per round.
+        private void insert(int slot, int b) {
+            if (b >= heads.length || heads[b] == NONE) {
+                link(slot, b);
+                mergedUpTo[b] = slot;
+                return;
+            }
+            int at = mergedUpTo[b] != NONE ? mergedUpTo[b] : heads[b];
+            while (at != NONE && at < slot) at = next[at];
+            if (at == NONE) {
+                link(slot, b);
+            } else {
+                int p = prev[at];
+                queuedSpeed[slot] = b;
+                prev[slot] = p;
+                next[slot] = at;
+                prev[at] = slot;
+                if (p != NONE) next[p] = slot; else heads[b] = slot;
+            }
+            mergedUpTo[b] = slot;
+        }
+
+        // Appends the slot to bucket b
+        private void link(int slot, int b) {
+            ensureCapacity(slot + 1);
+            if (prev.length < next.length) {
+                prev = Arrays.copyOf(prev, next.length);
+                queuedSpeed = Arrays.copyOf(queuedSpeed, next.length);
+            }
+            if (b >= heads.length) {
+                int old = heads.length;
+                heads = Arrays.copyOf(heads, Math.max(b + 1, old * 2));
+                tails = Arrays.copyOf(tails, heads.length);
+                Arrays.fill(heads, old, heads.length, NONE);
+                Arrays.fill(tails, old, tails.length, NONE);
+            }
+            queuedSpeed[slot] = b;
+            next[slot] = NONE;
+            prev[slot] = tails[b];
+            if (tails[b] != NONE) next[tails[b]] = slot;
+            else heads[b] = slot;
+            tails[b] = slot;
+        }
+
+        private void unlink(int slot) {
+            int b = queuedSpeed[slot];
+            int n = next[slot], p = prev[slot];
+            if (p != NONE) next[p] = n; else heads[b] = n;
+            if (n != NONE) prev[n] = p; else tails[b] = p;
+        }
+
+        @Override public void beginRound() {
+            // Re-queue only the players whose speed changed since the last round, in slot order
+            int m = 0;
+            for (int i = 0, n = store.speedChangeCount(); i < n; i++) {
+                int slot = store.speedChangeAt(i);
+                if (!store.isAlive(slot) || queuedSpeed[slot] == PENDING || queuedSpeed[slot] == Math.max(0, store.getSpeed(slot))) continue;
+                unlink(slot);
+                queuedSpeed[slot] = PENDING;
+                if (m == pending.length) pending = Arrays.copyOf(pending, m * 2);
+                pending[m++] = slot;
+            }
+            store.clearSpeedChanges();
+            if (m > 0) {
+                Arrays.sort(pending, 0, m);
+                int top = 0;
+                for (int i = 0; i < m; i++) top = Math.max(top, Math.max(0, store.getSpeed(pending[i])));
+                if (mergedUpTo.length <= Math.max(top, heads.length - 1)) mergedUpTo = new int[Math.max(top + 1, heads.length)];
+                Arrays.fill(mergedUpTo, NONE);
+                for (int i = 0; i < m; i++) insert(pending[i], Math.max(0, store.getSpeed(pending[i])));
+            }
+            bucket = heads.length;
+            cursor = NONE;
+        }
+
+        @Override int stateBytes() { return 4 + heads.length * 4 + store.size() * 4; }
+
+        // Up to the fastest bucket with a living player, so the same queues give the same bytes
+        // however far the arrays have grown
+        @Override void writeState(ByteBuffer buf) {
+            int buckets = heads.length;
+            while (buckets > 0 && !anyAlive(heads[buckets - 1])) buckets--;
+            buf.putInt(buckets);
+            for (int b = 0; b < buckets; b++) writeList(buf, heads[b]);
+        }
+
+        private boolean anyAlive(int head) {
+            for (int s = head; s != NONE; s = next[s]) {
+                if (store.isAlive(s)) return true;
+            }
+            return false;
+        }
+
+        @Override protected void readQueues(ByteBuffer buf) {
+            for (int b = 0, buckets = buf.getInt(); b < buckets; b++) {
+                for (int i = buf.getInt(); i > 0; i--) link(readSlot(buf), b);
+            }
+        }
+
+        @Override public int nextTurn() {
+            while (true) {
+                while (cursor == NONE) {
+                    if (--bucket < 0) return NONE;
+                    cursor = heads[bucket];
+                }
+                int slot = cursor;
+                cursor = next[slot];
+                if (store.isAlive(slot)) return slot;
+                unlink(slot);
+            }
+        }
+    }
+
+    // --- Speed-scaled mode: a timing wheel of ticks, a player acting every REFERENCE_SPEED/speed rounds ---
+    static final class TimingWheel extends TurnScheduler {
+        static final int TICKS_PER_ROUND = 60;
+        static final int REFERENCE_SPEED = 10; // speed that acts exactly once per round
+        private static final int WHEEL = 1024; // > longest interval (speed 1)
+
+        private final int[] heads = new int[WHEEL];
+        private final int[] tails = new int[WHEEL];
+        private long tick;
+        private long roundEnd;
+
+        TimingWheel(PlayerStore store) {
+            super(store);
+            Arrays.fill(heads, NONE);
+            Arrays.fill(tails, NONE);
+        }
+
+        static int interval(int speed) {
+            return Math.min(WHEEL - 1, Math.max(1, TICKS_PER_ROUND * REFERENCE_SPEED / Math.max(1, speed)));
+        }
+
+        // New players all take their first action on the first tick
+        @Override protected void add(int slot) {
+            ensureCapacity(slot + 1);
+            enqueue(slot, (int) (tick & (WHEEL - 1)));
+        }
+
+        private void enqueue(int slot, int b) {
+            ensureCapacity(slot + 1);
+            next[slot] = NONE;
+            if (tails[b] != NONE) next[tails[b]] = slot;
+            else heads[b] = slot;
+            tails[b] = slot;
+        }
+
+        @Override int stateBytes() { return 8 + WHEEL * 4 + store.size() * 4; }
+
+        @Override void writeState(ByteBuffer buf) {
+            buf.putLong(tick);
+            for (int b = 0; b < WHEEL; b++) writeList(buf, heads[b]);
+        }
+
+        @Override protected void readQueues(ByteBuffer buf) {
+            tick = buf.getLong();
+            for (int b = 0; b < WHEEL; b++) {
+                for (int i = buf.getInt(); i > 0; i--) enqueue(readSlot(buf), b);
+            }
+        }
+
+        @Override public void beginRound() {
+            store.clearSpeedChanges(); // the next reschedule picks up the new speed anyway
+            roundEnd = tick + TICKS_PER_ROUND;
+        }
+
+        @Override public int nextTurn() {
+            while (tick < roundEnd) {
+                int b = (int) (tick & (WHEEL - 1));
+                int slot = heads[b];
+                if (slot == NONE) { tick++; continue; }
+                heads[b] = next[slot];
+                if (heads[b] == NONE) tails[b] = NONE;
+                if (!store.isAlive(slot)) continue;
+                enqueue(slot, (int) ((tick + interval(store.getSpeed(slot))) & (WHEEL - 1)));
+                return slot;
+            }
+            return NONE;
+        }
+    }
+}
\ No newline at end of file
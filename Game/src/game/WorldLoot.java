@@ -0,0 +1,218 @@
+package game;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+// Items lying on the map (GameConfig.setWorldLoot). An item is a tool type and level, kept in
+// columns by item id like the PlayerStore; ids come from a fixed pool and go back to a free list
+// when an item is taken away, so spawning, picking up and dropping never allocate however long a
+// match runs. A pickup swaps the item's contents for the player's old weapon in place.
+//
+// Items are bucketed by cell (2^shift tiles a side, at most MAX_CELLS cells a side) in intrusive
+// doubly-linked lists. nearest() walks rings of cells outwards from the asking tile and stops
+// once no closer item can be left, so a query costs about the cells within the distance found,
+// not the number of items. Writes happen on the engine thread only; region tasks may read.
+
+final class WorldLoot {
+    static final int NONE = -1;
+    static final int MAX_CELLS = 256;
+
+    private final int mapSize;
+    private final int shift;
+    private final int cellsPerSide;
+    private final int[] heads;
+    // Item columns; a free item has level 0
+    private final int[] tool, level, x, y, next, prev;
+    private int freeHead;
+    private int count;
+    private int[] lost = new int[0]; // removeLost's scratch
+    private int lostCount;
+
+    WorldLoot(int mapSize, int capacity) {
+        this.mapSize = mapSize;
+        int s = 0;
+        while ((mapSize + (1 << s) - 1) >> s > MAX_CELLS) s++;
+        shift = s;
+        cellsPerSide = (mapSize + (1 << s) - 1) >> s;
+        heads = new int[cellsPerSide * cellsPerSide];
+        Arrays.fill(heads, NONE);
+        tool = new int[capacity];
+        level = new int[capacity];
+        x = new int[capacity];
+        y = new int[capacity];
+        next = new int[capacity];
+        prev = new int[capacity];
+        for (int i = 0; i < capacity; i++) next[i] = i + 1 < capacity ? i + 1 : NONE;
+        freeHead = capacity > 0 ? 0 : NONE;
+    }
+
+    int capacity() { return tool.length; }
+    int size() { return count; }
+    boolean isFull() { return freeHead == NONE; }
+
+    int tool(int item) { return tool[item]; }
+    int level(int item) { return level[item]; }
+    int x(int item) { return x[item]; }
+    int y(int item) { return y[item]; }
+
+    private int cell(int tx, int ty) { return (ty >> shift) * cellsPerSide + (tx >> shift); }
+
+    // Puts an item on a tile; returns its id, or NONE when the pool is full
+    int place(int toolId, int lvl, int tx, int ty) {
+        int item = freeHead;
+        if (item == NONE) return NONE;
+        freeHead = next[item];
+        tool[item] = toolId;
+        level[item] = lvl;
+        link(item, tx, ty);
+        count++;
+        return item;
+    }
+
+    private void link(int item, int tx, int ty) {
+        x[item] = tx;
+        y[item] = ty;
+        int c = cell(tx, ty), h = heads[c];
+        next[item] = h;
+        prev[item] = NONE;
+        if (h != NONE) prev[h] = item;
+        heads[c] = item;
+    }
+
+    // Takes an item off the map, back into the pool
+    void remove(int item) {
+        int n = next[item], p = prev[item];
+        if (p != NONE) next[p] = n;
+        else heads[cell(x[item], y[item])] = n;
+        if (n != NONE) prev[n] = p;
+        level[item] = 0;
+        prev[item] = NONE;
+        next[item] = freeHead;
+        freeHead = item;
+        count--;
+    }
+
+    // Replaces what an item is (the weapon a player dropped for it), on the same tile
+    void swap(int item, int toolId, int lvl) {
+        tool[item] = toolId;
+        level[item] = lvl;
+    }
+
+    // Highest level item on the tile (the first in list order on a tie), or NONE
+    int bestAt(int tx, int ty) {
+        int best = NONE;
+        for (int i = heads[cell(tx, ty)]; i != NONE; i = next[i]) {
+            if (x[i] == tx && y[i] == ty && (best == NONE || level[i] > level[best])) best = i;
+        }
+        return best;
+    }
+
+    // Closest item (Manhattan distance, at most maxDistance) of at least minLevel, or NONE. Ties go
+    // to the lowest id, so the answer doesn't depend on list order.
+    int nearest(int fx, int fy, int maxDistance, int minLevel) {
+        int cx = fx >> shift, cy = fy >> shift, size = 1 << shift;
+        int best = NONE, bestDistance = maxDistance;
+        for (int r = 0; r < cellsPerSide; r++) {
+            // Every tile in ring r is at least (r - 1) * size + 1 away (an equal one may still win the tie)
+            if (r > 0 && (r - 1) * size + 1 > bestDistance) break;
+            int y0 = Math.max(0, cy - r), y1 = Math.min(cellsPerSide - 1, cy + r);
+            for (int ry = y0; ry <= y1; ry++) {
+                boolean edge = ry == cy - r || ry == cy + r;
+                int x0 = Math.max(0, cx - r), x1 = Math.min(cellsPerSide - 1, cx + r);
+                // Inside rows only have the ring's two side cells
+                int stride = edge || r == 0 ? 1 : 2 * r;
+                for (int rx = edge ? x0 : cx - r; rx <= x1; rx += stride) {
+                    if (rx < 0) continue;
+                    for (int i = heads[ry * cellsPerSide + rx]; i != NONE; i = next[i]) {
+                        if (level[i] < minLevel) continue;
+                        int d = Math.abs(x[i] - fx) + Math.abs(y[i] - fy);
+                        if (d < bestDistance || (d == bestDistance && (best == NONE || i < best))) {
+                            best = i;
+                            bestDistance = d;
+                        }
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    // After a shrink: removes every item on a tile the zone no longer allows. Only the cells under
+    // the lost area are walked, so this costs about the area lost, not the pool. The items go back
+    // in id order, so the free list (and every id handed out later) doesn't depend on the walk.
+    void removeLost(Zone zone) {
+        int step = zone.getStep();
+        lostCount = 0;
+        zone.forEachLostSegment((ty, x0, x1) -> {
+            int row = (ty >> shift) * cellsPerSide;
+            for (int c = x0 >> shift; c <= x1 >> shift; c++) {
+                for (int i = heads[row + c]; i != NONE; i = next[i]) {
+                    if (y[i] == ty && x[i] >= x0 && x[i] <= x1 && !zone.allows(step, x[i], y[i])) {
+                        if (lostCount == lost.length) lost = Arrays.copyOf(lost, Math.max(16, lostCount * 2));
+                        lost[lostCount++] = i;
+                    }
+                }
+            }
+        });
+        Arrays.sort(lost, 0, lostCount);
+        for (int k = 0; k < lostCount; k++) remove(lost[k]);
+    }
+
+    // --- Snapshots: items cell by cell in list order, then the free list, so a restored pool
+    // hands out the same ids and answers in the same order ---
+    int stateBytes() { return 4 + count * 20 + (capacity() - count) * 4; }
+
+    void writeState(ByteBuffer buf) {
+        buf.putInt(count);
+        for (int h : heads) {
+            for (int i = h; i != NONE; i = next[i]) buf.putInt(i).putInt(tool[i]).putInt(level[i]).putInt(x[i]).putInt(y[i]);
+        }
+        for (int i = freeHead; i != NONE; i = next[i]) buf.putInt(i);
+    }
+
+    // Into a pool of the same capacity, fresh or not
+    void readState(ByteBuffer buf, int toolCount) {
+        Arrays.fill(heads, NONE);
+        Arrays.fill(level, 0);
+        count = buf.getInt();
+        if (count < 0 || count > capacity()) throw new IllegalArgumentException("Snapshot holds " + count + " items, the pool " + capacity());
+        int last = NONE;
+        for (int k = 0; k < count; k++) {
+            int i = item(buf.getInt());
+            tool[i] = buf.getInt();
+            level[i] = buf.getInt();
+            int tx = buf.getInt(), ty = buf.getInt();
+            if (tool[i] < 0 || tool[i] >= toolCount || level[i] < 1 || tx < 0 || ty < 0 || tx >= mapSize || ty >= mapSize) {
+                throw new IllegalArgumentException("Bad item " + i + " in snapshot");
+            }
+            // Cells come in order, each list head first: append
+            x[i] = tx;
+            y[i] = ty;
+            int c = cell(tx, ty);
+            next[i] = NONE;
+            if (last != NONE && cell(x[last], y[last]) == c) {
+                next[last] = i;
+                prev[i] = last;
+            } else {
+                heads[c] = i;
+                prev[i] = NONE;
+            }
+            last = i;
+        }
+        freeHead = NONE;
+        last = NONE;
+        for (int k = count; k < capacity(); k++) {
+            int i = item(buf.getInt());
+            next[i] = NONE;
+            prev[i] = NONE;
+            if (last == NONE) freeHead = i;
+            else next[last] = i;
+            last = i;
+        }
+    }
+
+    private int item(int i) {
+        if (i < 0 || i >= capacity()) throw new IllegalArgumentException("Item id " + i + " out of range");
+        return i;
+    }
+}
\ No newline at end of file
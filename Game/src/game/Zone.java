@@ -0,0 +1,257 @@
+package game;
+
+import java.util.function.IntConsumer;
+
+// The safe area and when it closes. The geometry is a pure function of the step (how many times
+// the zone has shrunk; 0 is the whole map, getSteps() the final zone), so the AI can look ahead
+// without copying anything; only the current step changes. Shapes:
+//   SQUARE - the classic zone: 0..limit on both axes, losing its top row and right column per step
+//   CIRCLE - a disk around the map centre covering the whole map, one tile of radius per step
+//   MOVING - the same disk, but its centre drifts a tile per step towards a random final centre
+// Every shape allows a tile a step before it is lost: a move that would leave the allowed area
+// is refused, and a shrink kills whoever stands on an allowed tile that isn't safe any more.
+// Those tiles are walked row segment by row segment, skipping empty index blocks, so a shrink
+// costs about the lost area's occupied blocks rather than a pass over every living player.
+//
+// The schedule is a list of phases: from phaseStart[i] on, the zone shrinks at the start of every
+// phaseInterval[i]-th round (counted from the phase start).
+
+public abstract class Zone {
+    public enum Shape { SQUARE, CIRCLE, MOVING }
+
+    protected final int mapSize;
+    private final int steps;
+    private final int[] phaseStart;
+    private final int[] phaseInterval;
+    private int step;
+
+    protected Zone(int mapSize, int steps, int[] phaseStart, int[] phaseInterval) {
+        this.mapSize = mapSize;
+        this.steps = Math.max(0, steps);
+        this.phaseStart = phaseStart.clone();
+        this.phaseInterval = phaseInterval.clone();
+    }
+
+    // rnd picks the moving zone's final centre (unused by the other shapes)
+    public static Zone create(Shape shape, int mapSize, int[] phaseStart, int[] phaseInterval, RandomSource rnd) {
+        switch (shape) {
+            case SQUARE: return new Square(mapSize, phaseStart, phaseInterval);
+            case CIRCLE: return new Disk(mapSize, phaseStart, phaseInterval, null);
+            default: return new Disk(mapSize, phaseStart, phaseInterval, rnd);
+        }
+    }
+
+    public abstract Shape getShape();
+    public int getStep() { return step; }
+    public int getSteps() { return steps; }
+    public boolean isFinal() { return step >= steps; }
+
+    // Whether the zone shrinks at the start of this round (if it isn't final yet)
+    public boolean shrinksAt(int round) {
+        int p = phaseStart.length - 1;
+        while (p > 0 && phaseStart[p] > round) p--;
+        return round >= phaseStart[p] && (round - phaseStart[p] + 1) % phaseInterval[p] == 0;
+    }
+
+    // --- Geometry at any step (also past the final one, for look-ahead) ---
+    // Tiles a player may stand on
+    public abstract boolean allows(int step, int x, int y);
+    // Tiles that survive the shrink to `step`
+    public abstract boolean safe(int step, int x, int y);
+    public abstract int centreX(int step);
+    public abstract int centreY(int step);
+    // Manhattan distance to the centre
+    abstract int centreDistance(int step, int x, int y);
+    // Square: the area is 0..extent; disk: the radius
+    public abstract int extent(int step);
+    abstract String describe(int step);
+
+    public int getExtent() { return extent(step); }
+    public String describe() { return describe(step); }
+
+    // Back to a step a snapshot recorded
+    void restoreStep(int step) {
+        if (step < 0 || step > steps) throw new IllegalArgumentException("Zone step must be 0.." + steps);
+        this.step = step;
+    }
+
+    // Next step; the caller then kills everyone forEachCaught reports
+    void shrink() {
+        if (isFinal()) throw new IllegalStateException("The zone is already final");
+        step++;
+    }
+
+    // Receives the tiles the last shrink took away as row segments: row y, x0..x1 inclusive
+    interface Segments {
+        void accept(int y, int x0, int x1);
+    }
+
+    // The tiles that were allowed before the last shrink and aren't safe now, clipped to the map,
+    // each once. Players and world loot on them are walked from these.
+    abstract void forEachLostSegment(Segments out);
+
+    protected void lost(Segments out, int y, int x0, int x1) {
+        x0 = Math.max(x0, 0);
+        x1 = Math.min(x1, mapSize - 1);
+        if (y >= 0 && y < mapSize && x0 <= x1) out.accept(y, x0, x1);
+    }
+
+    // Every living player on a tile the last shrink took away. The sink may remove the player from
+    // the index (killing it) but nobody else.
+    void forEachCaught(SpatialIndex index, IntConsumer sink) {
+        forEachLostSegment((y, x0, x1) -> caughtInRow(index, y, x0, x1, sink));
+    }
+
+    // Players on row y between x0 and x1 (inclusive, on the map), block by block
+    private static void caughtInRow(SpatialIndex index, int y, int x0, int x1, IntConsumer sink) {
+        int shift = index.getBlockShift(), by = y >> shift;
+        for (int x = x0; x <= x1; ) {
+            int blockEnd = Math.min(x1, (((x >> shift) + 1) << shift) - 1);
+            if (index.blockCount(x >> shift, by) != 0) {
+                for (int tx = x; tx <= blockEnd; tx++) {
+                    for (int s = index.first(tx, y); s != SpatialIndex.NONE; ) {
+                        int next = index.next(s);
+                        sink.accept(s);
+                        s = next;
+                    }
+                }
+            }
+            x = blockEnd + 1;
+        }
+    }
+
+    // --- Square anchored at (0,0): allowed 0..limit, safe below the limit ---
+    static final class Square extends Zone {
+        static final int FINAL_LIMIT = 3;
+
+        Square(int mapSize, int[] phaseStart, int[] phaseInterval) {
+            super(mapSize, mapSize - 1 - FINAL_LIMIT, phaseStart, phaseInterval);
+        }
+
+        @Override public Shape getShape() { return Shape.SQUARE; }
+
+        private int limit(int step) { return mapSize - 1 - step; }
+
+        @Override public boolean allows(int step, int x, int y) {
+            int l = limit(step);
+            return x >= 0 && y >= 0 && x <= l && y <= l;
+        }
+
+        @Override public boolean safe(int step, int x, int y) {
+            int l = limit(step);
+            return x >= 0 && y >= 0 && x < l && y < l;
+        }
+
+        @Override public int centreX(int step) { return limit(step) / 2; }
+        @Override public int centreY(int step) { return limit(step) / 2; }
+
+        @Override int centreDistance(int step, int x, int y) {
+            int c = limit(step) / 2;
+            return Math.abs(x - c) + Math.abs(y - c);
+        }
+
+        @Override public int extent(int step) { return limit(step); }
+        @Override String describe(int step) { return "0.." + limit(step); }
+
+        // Allowed before: 0..l+1. Safe now: 0..l-1. Lost: columns l, l+1 and rows l, l+1.
+        @Override void forEachLostSegment(Segments out) {
+            int l = limit(getStep());
+            for (int y = 0; y < l; y++) lost(out, y, l, l + 1);
+            for (int y = l; y <= l + 1; y++) lost(out, y, 0, l + 1);
+        }
+    }
+
+    // --- Disk, optionally drifting. Centre and radius are kept doubled, so an even map's centre
+    // (between four tiles) is exact ---
+    static final class Disk extends Zone {
+        static final int FINAL_RADIUS = 2;
+
+        private final boolean moving;
+        private final int[] cx, cy, r; // doubled, per step (one past the final step for look-ahead)
+
+        Disk(int mapSize, int[] phaseStart, int[] phaseInterval, RandomSource rnd) {
+            super(mapSize, (initialRadius(mapSize) - 2 * FINAL_RADIUS) / 2, phaseStart, phaseInterval);
+            moving = rnd != null;
+            int n = getSteps() + 2;
+            cx = new int[n];
+            cy = new int[n];
+            r = new int[n];
+            cx[0] = cy[0] = mapSize - 1;
+            r[0] = initialRadius(mapSize);
+            // The final centre keeps the final disk on the map; a tile per step keeps every disk
+            // inside the one before it
+            int lo = FINAL_RADIUS, hi = Math.max(lo, mapSize - 1 - FINAL_RADIUS);
+            int tx = moving ? 2 * (lo + rnd.nextInt(hi - lo + 1)) : cx[0];
+            int ty = moving ? 2 * (lo + rnd.nextInt(hi - lo + 1)) : cy[0];
+            for (int k = 1; k < n; k++) {
+                r[k] = Math.max(0, r[k - 1] - 2);
+                int ddx = tx - cx[k - 1], ddy = ty - cy[k - 1];
+                cx[k] = cx[k - 1];
+                cy[k] = cy[k - 1];
+                if (Math.abs(ddx) >= Math.abs(ddy)) cx[k] += Math.max(-2, Math.min(2, ddx));
+                else cy[k] += Math.max(-2, Math.min(2, ddy));
+            }
+        }
+
+        // Doubled distance from the map centre to a corner, rounded up: the first disk covers the map
+        private static int initialRadius(int mapSize) {
+            return (int) Math.ceil(Math.sqrt(2) * (mapSize - 1));
+        }
+
+        @Override public Shape getShape() { return moving ? Shape.MOVING : Shape.CIRCLE; }
+
+        private int at(int step) { return Math.min(step, r.length - 1); }
+
+        @Override public boolean allows(int step, int x, int y) {
+            if (x < 0 || y < 0 || x >= mapSize || y >= mapSize) return false;
+            int k = at(step);
+            long dx = 2L * x - cx[k], dy = 2L * y - cy[k];
+            return dx * dx + dy * dy <= (long) r[k] * r[k];
+        }
+
+        @Override public boolean safe(int step, int x, int y) { return allows(step, x, y); }
+
+        @Override public int centreX(int step) { return cx[at(step)] / 2; }
+        @Override public int centreY(int step) { return cy[at(step)] / 2; }
+
+        // To the centre tile (rounded down), so the AI has one tile to converge on, even on an even map
+        @Override int centreDistance(int step, int x, int y) {
+            return Math.abs(x - centreX(step)) + Math.abs(y - centreY(step));
+        }
+
+        @Override public int extent(int step) { return r[at(step)] / 2; }
+
+        @Override String describe(int step) {
+            return (moving ? "moving circle r=" : "circle r=") + extent(step) + " around (" + centreX(step) + "," + centreY(step) + ")";
+        }
+
+        // Row by row over the previous disk: its span minus the new disk's span (up to two segments)
+        @Override void forEachLostSegment(Segments out) {
+            int k = getStep(), p = k - 1;
+            int y0 = Math.max(0, Math.floorDiv(cy[p] - r[p] + 1, 2)), y1 = Math.min(mapSize - 1, Math.floorDiv(cy[p] + r[p], 2));
+            for (int y = y0; y <= y1; y++) {
+                long hp = halfWidth(r[p], 2L * y - cy[p]);
+                if (hp < 0) continue;
+                int a0 = (int) Math.floorDiv(cx[p] - hp + 1, 2), a1 = (int) Math.floorDiv(cx[p] + hp, 2);
+                long hk = halfWidth(r[k], 2L * y - cy[k]);
+                if (hk < 0) {
+                    lost(out, y, a0, a1);
+                    continue;
+                }
+                int b0 = (int) Math.floorDiv(cx[k] - hk + 1, 2), b1 = (int) Math.floorDiv(cx[k] + hk, 2);
+                lost(out, y, a0, Math.min(a1, b0 - 1));
+                lost(out, y, Math.max(a0, b1 + 1), a1);
+            }
+        }
+
+        // Largest doubled |dx| inside a doubled radius at doubled row offset dy, or -1 for none
+        private static long halfWidth(int radius, long dy) {
+            long h = (long) radius * radius - dy * dy;
+            if (h < 0) return -1;
+            long w = (long) Math.sqrt((double) h);
+            while (w * w > h) w--;
+            while ((w + 1) * (w + 1) <= h) w++;
+            return w;
+        }
+    }
+}
\ No newline at end of file
@@ -5,4 +5,6 @@
  * 
  */
 module Game {
+	requires java.management;
+	exports game to java.management;
 }
\ No newline at end of file
@@ -0,0 +1,80 @@
+package game;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+// The precomputed outcomes against the fight rules as the engine first had them (per-battle
+// arithmetic on the Player/Tool objects), for every pair of tabulated profiles
+class BattleTableTest {
+    // Default content, as the original classes hard-coded it: attack, defense per character
+    private static final int[][] CHARACTERS = {{15, 10}, {12, 8}, {25, 5}};
+    private static final int MELEE = 0, RANGED = 1, DEFENSE = 2;
+    private static final int[] KIND = {MELEE, RANGED, DEFENSE};
+    private static final int[] BASE_DAMAGE = {30, 20, 0};
+
+    // The original resolveBattle: packed like BattleTable (damage << 1 | first wins)
+    static int baseline(int charA, int toolA, int lvlA, int charB, int toolB, int lvlB) {
+        int aTaken = taken(charA, toolA, lvlA, charB, toolB, lvlB);
+        int bTaken = taken(charB, toolB, lvlB, charA, toolA, lvlA);
+        boolean aWins = aTaken > bTaken || (aTaken == bTaken && lvlA > lvlB);
+        return aWins ? aTaken << 1 | 1 : bTaken << 1;
+    }
+
+    // Damage the attacker's weapon does to the defender
+    private static int taken(int charA, int toolA, int lvlA, int charB, int toolB, int lvlB) {
+        int attack = CHARACTERS[charA][0] + (KIND[toolA] == DEFENSE ? 0 : lvlA * 2);
+        int base = BASE_DAMAGE[toolA] + lvlA * 5 + attack;
+        switch (KIND[toolA]) {
+            case MELEE: return Math.max(1, base - (CHARACTERS[charB][1] + (KIND[toolB] == DEFENSE ? lvlB * 3 : 0)));
+            case RANGED: return Math.max(1, base - (KIND[toolB] == DEFENSE ? lvlB * 2 : 0));
+            default: return 1;
+        }
+    }
+
+    @Test
+    void everyTabulatedPairMatchesTheOriginalRules() {
+        ContentRegistry content = ContentRegistry.defaults();
+        assertEquals(CHARACTERS.length, content.characterCount());
+        assertEquals(KIND.length, content.toolCount());
+
+        PlayerStore store = new PlayerStore(content);
+        int levels = BattleTable.MAX_LEVEL;
+        for (int c = 0; c < CHARACTERS.length; c++) {
+            for (int t = 0; t < KIND.length; t++) {
+                for (int lvl = 1; lvl <= levels; lvl++) store.add(c, t, lvl);
+            }
+        }
+        BattleTable table = store.getBattleTable();
+        for (int a = 0; a < store.size(); a++) {
+            for (int b = 0; b < store.size(); b++) {
+                int expected = baseline(store.getCharType(a), store.getToolType(a), store.getWeaponLevel(a),
+                                        store.getCharType(b), store.getToolType(b), store.getWeaponLevel(b));
+                int actual = table.outcome(store, a, b);
+                if (actual != expected) assertEquals(expected, actual, describe(store, a) + " vs " + describe(store, b));
+            }
+        }
+    }
+
+    @Test
+    void levelsPastTheTableUseTheSameRules() {
+        PlayerStore store = new PlayerStore(ContentRegistry.defaults());
+        int[] levels = {BattleTable.MAX_LEVEL, BattleTable.MAX_LEVEL + 1, 50};
+        for (int c = 0; c < CHARACTERS.length; c++) {
+            for (int t = 0; t < KIND.length; t++) {
+                for (int lvl : levels) store.add(c, t, lvl);
+            }
+        }
+        for (int a = 0; a < store.size(); a++) {
+            for (int b = 0; b < store.size(); b++) {
+                int expected = baseline(store.getCharType(a), store.getToolType(a), store.getWeaponLevel(a),
+                                        store.getCharType(b), store.getToolType(b), store.getWeaponLevel(b));
+                assertEquals(expected, store.getBattleTable().outcome(store, a, b));
+            }
+        }
+    }
+
+    private static String describe(PlayerStore store, int s) {
+        return store.getCharType(s) + "/" + store.getToolType(s) + "/L" + store.getWeaponLevel(s);
+    }
+}
\ No newline at end of file
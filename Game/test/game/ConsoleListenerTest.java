@@ -0,0 +1,58 @@
+package game;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+@Timeout(30)
+class ConsoleListenerTest {
+    // A terminal that takes nothing until it is released
+    private static final class StalledOutput implements GameOutput {
+        final CountDownLatch released = new CountDownLatch(1);
+        final StringBuffer written = new StringBuffer();
+
+        @Override
+        public void print(String s) {
+            try {
+                released.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            written.append(s);
+        }
+    }
+
+    // Behind a stalled terminal the engine waits once MAX_PENDING_BATCHES are queued, and when the
+    // terminal catches up everything arrives in order
+    @Test
+    void slowTerminalHoldsBackTheEngineInsteadOfQueueingWithoutLimit() throws InterruptedException {
+        StalledOutput terminal = new StalledOutput();
+        ConsoleListener console = new ConsoleListener(terminal);
+        int batches = ConsoleListener.MAX_PENDING_BATCHES * 3, size = ConsoleListener.BATCH_CHARS;
+        AtomicInteger handedOff = new AtomicInteger();
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < batches; i++) expected.append(String.valueOf((char) ('a' + i % 26)).repeat(size));
+        Thread engine = new Thread(() -> {
+            for (int i = 0; i < batches; i++) {
+                console.print(expected.substring(i * size, (i + 1) * size)); // one full batch each
+                handedOff.incrementAndGet();
+            }
+            console.close();
+        }, "engine");
+        engine.start();
+        while (engine.getState() != Thread.State.WAITING) Thread.sleep(1);
+        // One batch at the terminal and a full queue behind it
+        assertEquals(1 + ConsoleListener.MAX_PENDING_BATCHES, handedOff.get());
+        assertTrue(engine.isAlive());
+
+        terminal.released.countDown();
+        engine.join();
+        assertEquals(batches, handedOff.get());
+        assertEquals(expected.toString(), terminal.written.toString());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,206 @@
+package game;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+// Loopback matches: a server on a free port and real clients, one thread each
+@Timeout(60)
+class GameServerTest {
+    // What one client saw of its match
+    private static final class Session {
+        final List<Byte> frames = new ArrayList<>();
+        final List<int[]> states = new ArrayList<>(); // round, alive, hp, x, y
+        int slot, players, winner, rounds;
+    }
+
+    private static GameServer server(GameConfig config, int seats, MatchHost host, long turnTimeoutMillis) throws IOException {
+        return new GameServer(0, config, seats, host, turnTimeoutMillis);
+    }
+
+    // Joins and plays to END
+    private static Session play(GameClient client, String name, Integer move) throws IOException {
+        client.join(name, 0, 0);
+        return playOn(client, move);
+    }
+
+    // Reads to END; move (null for never) answers each TURN
+    private static Session playOn(GameClient client, Integer move) throws IOException {
+        Session s = new Session();
+        while (true) {
+            byte type = client.read();
+            s.frames.add(type);
+            switch (type) {
+                case GameServer.WELCOME:
+                    s.slot = client.getSlot();
+                    s.players = client.getPlayers();
+                    break;
+                case GameServer.STATE:
+                    s.states.add(new int[] {client.getRound(), client.getAlive(), client.getHp(), client.getX(), client.getY()});
+                    break;
+                case GameServer.TURN:
+                    if (move != null) client.move(move);
+                    break;
+                case GameServer.END:
+                    s.winner = client.getWinner();
+                    s.rounds = client.getRounds();
+                    return s;
+                default:
+                    break;
+            }
+        }
+    }
+
+    private static CompletableFuture<Session> playAsync(GameClient client, String name, Integer move) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return play(client, name, move);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, r -> start(r, name));
+    }
+
+    private static void start(Runnable r, String name) {
+        Thread t = new Thread(r, name);
+        t.setDaemon(true);
+        t.start();
+    }
+
+    // WELCOME first, a STATE before every TURN, END last, and the last STATE agrees with it
+    private static void assertProtocol(Session s, int players) {
+        assertEquals(GameServer.WELCOME, s.frames.get(0));
+        assertEquals(players, s.players);
+        assertEquals(GameServer.END, s.frames.get(s.frames.size() - 1));
+        for (int i = 1; i < s.frames.size(); i++) {
+            if (s.frames.get(i) == GameServer.TURN) assertEquals(GameServer.STATE, s.frames.get(i - 1), "frame " + i);
+        }
+        assertTrue(s.rounds > 0);
+        int[] last = s.states.get(s.states.size() - 1);
+        assertEquals(s.rounds, last[0]);
+        assertTrue(last[1] <= 1, "still " + last[1] + " alive at the end");
+        if (s.winner == s.slot) assertTrue(last[2] > 0, "the winner has no hp left");
+        if (last[2] <= 0) assertNotEquals(s.slot, s.winner);
+    }
+
+    @Test
+    void playersAreWelcomedPlayTheirTurnsAndLearnTheWinner() throws Exception {
+        GameConfig config = new GameConfig().setSeed(1).setNumAI(2).setMapSize(8);
+        try (MatchHost host = new MatchHost(); GameServer server = server(config, 2, host, 5_000);
+             GameClient a = GameClient.connect("localhost", server.getPort());
+             GameClient b = GameClient.connect("localhost", server.getPort())) {
+            CompletableFuture<Session> fa = playAsync(a, "a", MoveStrategy.LEFT), fb = playAsync(b, "b", MoveStrategy.RIGHT);
+            Session sa = fa.get(), sb = fb.get();
+            assertProtocol(sa, 4);
+            assertProtocol(sb, 4);
+            assertNotEquals(sa.slot, sb.slot);
+            assertTrue(sa.frames.contains(GameServer.TURN) && sb.frames.contains(GameServer.TURN));
+            assertEquals(sa.winner, sb.winner);
+            assertEquals(sa.rounds, sb.rounds);
+            assertTrue(sa.winner >= -1 && sa.winner < 4);
+
+            // After END the same connection may join the next match
+            CompletableFuture<Session> again = playAsync(a, "a", MoveStrategy.STAY), other = playAsync(b, "b", MoveStrategy.STAY);
+            assertProtocol(again.get(), 4);
+            assertProtocol(other.get(), 4);
+        }
+    }
+
+    // A client that never answers stays where it is, one timed-out turn after another
+    @Test
+    void unansweredTurnsTimeOutAsStay() throws Exception {
+        GameConfig config = new GameConfig().setSeed(2).setNumAI(2).setMapSize(6);
+        try (MatchHost host = new MatchHost(); GameServer server = server(config, 1, host, 20);
+             GameClient idle = GameClient.connect("localhost", server.getPort())) {
+            Session s = play(idle, "idle", null);
+            assertProtocol(s, 3);
+            assertTrue(s.frames.stream().filter(t -> t == GameServer.TURN).count() > 1);
+            int[] first = s.states.get(0);
+            for (int[] state : s.states) {
+                if (state[2] <= 0) break;
+                assertEquals(first[3], state[3], "x in round " + state[0]);
+                assertEquals(first[4], state[4], "y in round " + state[0]);
+            }
+        }
+    }
+
+    // A client gone mid-turn stays put from then on, without waiting out its turns
+    @Test
+    void disconnectedPlayersStayWithoutWaitingForTheTimeout() throws Exception {
+        GameConfig config = new GameConfig().setSeed(3).setNumAI(2).setMapSize(8);
+        try (MatchHost host = new MatchHost(); GameServer server = server(config, 2, host, 600_000);
+             GameClient stays = GameClient.connect("localhost", server.getPort());
+             GameClient leaves = GameClient.connect("localhost", server.getPort())) {
+            CompletableFuture<Session> playing = playAsync(stays, "stays", MoveStrategy.UP);
+            leaves.join("leaves", 1, 1);
+            while (leaves.read() != GameServer.TURN) { /* WELCOME, STATE */ }
+            leaves.close();
+            Session s = playing.get();
+            assertProtocol(s, 4);
+            assertTrue(s.rounds > 1);
+        }
+    }
+
+    // Every lobby's match waits on its human, and more lobbies than cores all get to play at once
+    @Test
+    void moreHumanLobbiesThanCoresProgressTogether() throws Exception {
+        int lobbies = Runtime.getRuntime().availableProcessors() + 2;
+        GameConfig config = new GameConfig().setSeed(4).setNumAI(2).setMapSize(6);
+        CountDownLatch allTurns = new CountDownLatch(lobbies);
+        try (MatchHost host = new MatchHost(); GameServer server = server(config, 1, host, 600_000)) {
+            List<CompletableFuture<Session>> sessions = new ArrayList<>();
+            for (int i = 0; i < lobbies; i++) {
+                GameClient c = GameClient.connect("localhost", server.getPort());
+                String name = "p" + i;
+                sessions.add(CompletableFuture.supplyAsync(() -> {
+                    try (c) {
+                        c.join(name, 0, 0);
+                        while (c.read() != GameServer.TURN) { /* WELCOME, STATE */ }
+                        // Hold the first turn until every match has reached one
+                        allTurns.countDown();
+                        if (!allTurns.await(30, TimeUnit.SECONDS)) throw new IllegalStateException("Matches waiting for a thread");
+                        c.move(MoveStrategy.STAY);
+                        return playOn(c, MoveStrategy.STAY);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    } catch (InterruptedException e) {
+                        throw new IllegalStateException(e);
+                    }
+                }, r -> start(r, name)));
+            }
+            assertTrue(allTurns.await(20, TimeUnit.SECONDS), allTurns.getCount() + " of " + lobbies + " matches never got to a turn");
+            for (CompletableFuture<Session> f : sessions) {
+                Session s = f.get();
+                assertTrue(s.rounds > 0);
+                assertEquals(GameServer.END, s.frames.get(s.frames.size() - 1));
+            }
+        }
+    }
+
+    // A client that stops reading can't make the server queue frames for it without limit
+    @Test
+    void outboxClosesOnceAClientFallsTooFarBehind() {
+        GameServer.Outbox outbox = new GameServer.Outbox(3);
+        for (int i = 0; i < 3; i++) assertTrue(outbox.add(GameServer.frame(GameServer.TURN, 0)));
+        outbox.remove();
+        assertTrue(outbox.add(GameServer.frame(GameServer.TURN, 0)));
+        assertFalse(outbox.isClosed());
+        assertFalse(outbox.add(GameServer.frame(GameServer.TURN, 0)));
+        assertTrue(outbox.isClosed());
+        // Closed for good, even once it drains
+        while (outbox.peek() != null) outbox.remove();
+        assertFalse(outbox.add(GameServer.frame(GameServer.TURN, 0)));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,140 @@
+package game;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class MatchSnapshotTest {
+    @TempDir
+    Path dir;
+
+    private static List<GameConfig> configs(long seed) {
+        List<GameConfig> c = new ArrayList<>();
+        c.add(new GameConfig().setSeed(seed).setNumAI(12).setMapSize(12));
+        c.add(new GameConfig().setSeed(seed).setNumAI(12).setMapSize(12).setSpeedScaledTurns(true));
+        c.add(new GameConfig().setSeed(seed).setNumAI(150).setMapSize(32).setRegionSize(8).setDifficulty(2));
+        c.add(new GameConfig().setSeed(seed).setNumAI(12).setMapSize(12).setZoneShape(Zone.Shape.CIRCLE).addShrinkPhase(10, 1));
+        c.add(new GameConfig().setSeed(seed).setNumAI(4).setMapSize(8).setZoneShape(Zone.Shape.MOVING).setDifficulty(3));
+        c.add(new GameConfig().setSeed(seed).setNumAI(30).setMapSize(16).setWorldLoot(true).setDifficulty(2).setLootChance(0.3));
+        c.add(new GameConfig().setSeed(seed).setNumAI(150).setMapSize(32).setRegionSize(8).setWorldLoot(true).setLootChance(0.2));
+        return c;
+    }
+
+    private static byte[] bytes(ByteBuffer buf) {
+        byte[] b = new byte[buf.remaining()];
+        buf.get(b);
+        return b;
+    }
+
+    // The snapshot after every round from the first one on
+    private static List<byte[]> playOut(GameEngine engine) {
+        List<byte[]> states = new ArrayList<>();
+        MatchSnapshot snapshot = new MatchSnapshot();
+        while (engine.getAliveCount() > 1 && engine.getRound() < 400) {
+            engine.playRound();
+            states.add(bytes(snapshot.encode(engine)));
+        }
+        return states;
+    }
+
+    // Saved, loaded and played on, a match goes exactly as it would have without the break
+    @Test
+    void resumedMatchPlaysOnLikeAnUninterruptedOne() throws IOException {
+        Path file = dir.resolve("match.snap");
+        for (long seed = 0; seed < 4; seed++) {
+            List<GameConfig> configs = configs(seed);
+            for (int c = 0; c < configs.size(); c++) {
+                String at = "config " + c + ", seed " + seed;
+                GameEngine reference = new GameEngine(GameOutput.NONE);
+                reference.setupGame(configs.get(c));
+                List<byte[]> expected = playOut(reference);
+
+                GameEngine first = new GameEngine(GameOutput.NONE);
+                first.setupGame(configs(seed).get(c));
+                int stop = (int) Math.min(1 + seed * 2, expected.size() - 1);
+                while (first.getRound() < stop) first.playRound();
+                new MatchSnapshot().save(first, file);
+
+                GameEngine resumed = MatchSnapshot.load(file);
+                assertEquals(stop, resumed.getRound(), at);
+                assertArrayEquals(expected.get(stop - 1), bytes(new MatchSnapshot().encode(resumed)), at + ": restored state");
+                List<byte[]> rest = playOut(resumed);
+                assertEquals(expected.size() - stop, rest.size(), at + ": rounds");
+                for (int r = 0; r < rest.size(); r++) {
+                    assertArrayEquals(expected.get(stop + r), rest.get(r), at + ": state after round " + (stop + r + 1));
+                }
+                assertEquals(reference.getWinner() == null ? -1 : reference.getWinner().getSlot(),
+                             resumed.getWinner() == null ? -1 : resumed.getWinner().getSlot(), at + ": winner");
+            }
+        }
+    }
+
+    private static byte[] snapshotOf(GameConfig config, int rounds) {
+        GameEngine engine = new GameEngine(GameOutput.NONE);
+        engine.setupGame(config);
+        for (int r = 0; r < rounds; r++) engine.playRound();
+        return bytes(new MatchSnapshot().encode(engine));
+    }
+
+    private static void decode(byte[] snapshot) throws IOException {
+        MatchSnapshot.decode(ByteBuffer.wrap(snapshot), new GameConfig(), GameOutput.NONE, null);
+    }
+
+    @Test
+    void badSettingsAreReportedAsCorrupt() throws IOException {
+        byte[] good = snapshotOf(new GameConfig().setSeed(1).setNumAI(12).setMapSize(12), 2);
+        decode(good);
+        // Header: magic, version, seed, reproducible, map size, difficulty, loot chance,
+        // speed-scaled turns, region size, zone shape
+        int difficulty = 4 + 1 + 8 + 1 + 4, shape = difficulty + 1 + 8 + 1 + 4;
+        for (int at : new int[] {difficulty, shape}) {
+            byte[] bad = good.clone();
+            bad[at] = 99;
+            IOException e = assertThrows(IOException.class, () -> decode(bad), "byte " + at);
+            assertTrue(e.getMessage().startsWith("Corrupt snapshot"), e.getMessage());
+        }
+        byte[] wrongMagic = good.clone();
+        wrongMagic[0] = 0;
+        assertThrows(IOException.class, () -> decode(wrongMagic));
+    }
+
+    @Test
+    void truncatedSnapshotsThrowIOException() {
+        byte[] good = snapshotOf(new GameConfig().setSeed(2).setNumAI(30).setMapSize(16).setWorldLoot(true), 3);
+        for (int n = 0; n < good.length; n++) {
+            byte[] cut = Arrays.copyOf(good, n);
+            assertThrows(IOException.class, () -> decode(cut), n + " of " + good.length + " bytes");
+        }
+    }
+
+    // Any damaged byte either still decodes or fails with an IOException, never anything else
+    @Test
+    void damagedSnapshotsFailWithIOException() throws IOException {
+        byte[] good = snapshotOf(new GameConfig().setSeed(3).setNumAI(30).setMapSize(16).setWorldLoot(true).setSpeedScaledTurns(true), 3);
+        Path file = dir.resolve("damaged.snap");
+        Random rnd = new Random(3);
+        for (int i = 0; i < 2000; i++) {
+            byte[] bad = good.clone();
+            for (int k = 1 + rnd.nextInt(3); k > 0; k--) bad[5 + rnd.nextInt(bad.length - 5)] = (byte) rnd.nextInt(256);
+            Files.write(file, bad);
+            try {
+                MatchSnapshot.load(file);
+            } catch (IOException e) {
+                // expected for most
+            }
+        }
+    }
+}
\ No newline at end of file
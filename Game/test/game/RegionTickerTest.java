@@ -0,0 +1,78 @@
+package game;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+// Region rounds play the same match whatever the pool: same events in the same order, same state
+// after every round, same winner
+class RegionTickerTest {
+    private static final int PLAYERS = 400;
+
+    // One match played round by round: its events as text, the snapshot bytes after each round
+    // (these include the engine's event log) and the winner
+    private static final class Run {
+        final StringBuilder events = new StringBuilder();
+        final List<byte[]> states = new ArrayList<>();
+        int winner;
+    }
+
+    private static Run play(long seed, boolean worldLoot, ForkJoinPool pool) {
+        Run run = new Run();
+        GameEngine engine = new GameEngine(GameOutput.NONE);
+        engine.setTickPool(pool);
+        engine.addListener(new GameListener() {
+            @Override public void onBattle(Player attacker, Player defender, Player winner, Player loser, int damage) {
+                run.events.append("B ").append(attacker.getSlot()).append(' ').append(defender.getSlot())
+                          .append(' ').append(winner.getSlot()).append(' ').append(damage).append('\n');
+            }
+            @Override public void onEliminated(Player winner, Player loser) {
+                run.events.append("E ").append(loser.getSlot()).append('\n');
+            }
+        });
+        engine.setupGame(new GameConfig().setSeed(seed).setNumAI(PLAYERS).setMapSize(40).setRegionSize(8)
+                                         .setDifficulty(1).setLootChance(0.2).setWorldLoot(worldLoot)
+                                         .setLogCapacity(1 << 16));
+        MatchSnapshot snapshot = new MatchSnapshot();
+        while (engine.getAliveCount() > 1 && engine.getRound() < 500) {
+            engine.playRound();
+            ByteBuffer state = snapshot.encode(engine);
+            byte[] bytes = new byte[state.remaining()];
+            state.get(bytes);
+            run.states.add(bytes);
+        }
+        Player winner = engine.getWinner();
+        run.winner = winner == null ? -1 : winner.getSlot();
+        return run;
+    }
+
+    @Test
+    void sameMatchOnOneThreadAndMany() {
+        ForkJoinPool single = new ForkJoinPool(1);
+        ForkJoinPool many = new ForkJoinPool(Math.max(4, Runtime.getRuntime().availableProcessors()));
+        try {
+            for (long seed = 0; seed < 12; seed++) {
+                boolean worldLoot = seed % 2 == 1;
+                Run a = play(seed, worldLoot, single), b = play(seed, worldLoot, many);
+                String at = "seed " + seed;
+                assertTrue(a.events.length() > 0, at + ": no battles");
+                assertEquals(a.winner, b.winner, at + ": winner");
+                assertEquals(a.events.toString(), b.events.toString(), at + ": events");
+                assertEquals(a.states.size(), b.states.size(), at + ": rounds");
+                for (int r = 0; r < a.states.size(); r++) {
+                    assertArrayEquals(a.states.get(r), b.states.get(r), at + ": state after round " + (r + 1));
+                }
+            }
+        } finally {
+            single.shutdown();
+            many.shutdown();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,73 @@
+package game;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ReplayPlayerTest {
+    @TempDir
+    Path dir;
+
+    private byte[] headlessRecording() throws IOException {
+        Path file = dir.resolve("good.brr");
+        ReplayRecorder.headless(new GameConfig().setSeed(5).setNumAI(12).setMapSize(12).addShrinkPhase(10, 1)
+                                                .setZoneShape(Zone.Shape.CIRCLE).setWorldLoot(true), file);
+        return Files.readAllBytes(file);
+    }
+
+    private ReplayPlayer open(byte[] replay) throws IOException {
+        Path file = dir.resolve("replay.brr");
+        Files.write(file, replay);
+        return ReplayPlayer.open(file);
+    }
+
+    @Test
+    void badSettingsAreReportedAsCorrupt() throws IOException {
+        byte[] good = headlessRecording();
+        assertEquals(5, open(good).getSeed());
+        // Header: magic, version, mode, seed, AIs, difficulty, map size, speed-scaled turns,
+        // loot chance, shrink interval, region size, zone shape
+        int difficulty = 4 + 1 + 1 + 8 + 4, shape = difficulty + 1 + 4 + 1 + 8 + 4 + 4;
+        for (int at : new int[] {difficulty, shape}) {
+            byte[] bad = good.clone();
+            bad[at] = 99;
+            IOException e = assertThrows(IOException.class, () -> open(bad), "byte " + at);
+            assertTrue(e.getMessage().startsWith("Corrupt replay"), e.getMessage());
+        }
+    }
+
+    @Test
+    void truncatedHeadersAreReportedAsCorrupt() throws IOException {
+        byte[] good = headlessRecording();
+        for (int n = 0; n < good.length; n++) {
+            byte[] cut = Arrays.copyOf(good, n);
+            IOException e = assertThrows(IOException.class, () -> open(cut), n + " of " + good.length + " bytes");
+            assertTrue(e.getMessage().startsWith("Corrupt replay"), e.getMessage());
+        }
+    }
+
+    // Any damaged header byte either still opens or fails with an IOException, never anything else
+    @Test
+    void damagedHeadersFailWithIOException() throws IOException {
+        byte[] good = headlessRecording();
+        Random rnd = new Random(9);
+        for (int i = 0; i < 2000; i++) {
+            byte[] bad = good.clone();
+            for (int k = 1 + rnd.nextInt(3); k > 0; k--) bad[5 + rnd.nextInt(bad.length - 5)] = (byte) rnd.nextInt(256);
+            try {
+                open(bad);
+            } catch (IOException e) {
+                // expected for most
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,58 @@
+package game;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class TurnSchedulerTest {
+    // Weapons whose level changes speed, so pickups and level-ups re-queue players
+    private static ContentRegistry speedContent() {
+        return ContentRegistry.defaults().with("Sword.speedPerLevel", 1).with("Bow.speedPerLevel", 2);
+    }
+
+    @Test
+    void newSlotsAreNotSpeedChanges() {
+        PlayerStore store = new PlayerStore(speedContent());
+        store.add(0, 0, 1);
+        store.add(1, 1, 3);
+        assertEquals(0, store.speedChangeCount());
+        store.equip(0, 0, 2);
+        assertEquals(1, store.speedChangeCount());
+        store.equip(1, 1, 3); // same speed
+        assertEquals(1, store.speedChangeCount());
+    }
+
+    // Classic rounds: every round is the living players sorted by speed (as the round began),
+    // equal speeds in join order, however often speeds changed before
+    @Test
+    void equalSpeedsKeepJoinOrderAfterSpeedChanges() {
+        int players = 60;
+        for (long seed = 0; seed < 40; seed++) {
+            GameEngine engine = new GameEngine(GameOutput.NONE);
+            List<Integer> turns = new ArrayList<>();
+            engine.addListener(new GameListener() {
+                @Override public void onTurn(Player p) { turns.add(p.getSlot()); }
+            });
+            engine.setupGame(new GameConfig().setSeed(seed).setNumAI(players).setMapSize(20).setLootChance(0.3)
+                                             .setContent(speedContent()));
+            while (engine.getAliveCount() > 1) {
+                int[] speed = new int[players];
+                List<Integer> expected = new ArrayList<>();
+                for (int s = 0; s < players; s++) {
+                    speed[s] = engine.getPlayerAtSlot(s).getTotalSpeed();
+                    if (engine.getPlayerAtSlot(s).isAlive()) expected.add(s);
+                }
+                expected.sort(Comparator.comparingInt((Integer s) -> -speed[s]));
+                turns.clear();
+                engine.playRound();
+                // Players killed before their turn don't get one
+                expected.retainAll(turns);
+                assertEquals(expected, turns, "seed " + seed + ", round " + engine.getRound());
+            }
+        }
+    }
+}
\ No newline at end of file
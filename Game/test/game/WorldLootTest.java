@@ -0,0 +1,60 @@
+package game;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class WorldLootTest {
+    private static Zone zone(Zone.Shape shape, int mapSize) {
+        return Zone.create(shape, mapSize, new int[] {1}, new int[] {1}, new RandomSource(7, 1));
+    }
+
+    @Test
+    void shrinkRemovesLootOnLostTilesAndKeepsTheRest() {
+        Zone zone = zone(Zone.Shape.SQUARE, 10);
+        WorldLoot loot = new WorldLoot(10, 8);
+        int corner = loot.place(0, 2, 9, 9), edge = loot.place(1, 3, 9, 4), bottom = loot.place(2, 4, 3, 9);
+        int inside = loot.place(0, 5, 4, 4), boundary = loot.place(1, 2, 8, 8), origin = loot.place(2, 3, 0, 0);
+        zone.shrink(); // allows 0..8 now
+        loot.removeLost(zone);
+        assertEquals(3, loot.size());
+        for (int item : new int[] {corner, edge, bottom}) assertEquals(0, loot.level(item), "item " + item);
+        for (int item : new int[] {inside, boundary, origin}) assertTrue(loot.level(item) > 0, "item " + item);
+        assertEquals(inside, loot.nearest(4, 4, 0, 1));
+        assertEquals(WorldLoot.NONE, loot.nearest(9, 9, 1, 1));
+    }
+
+    // Every shape, step by step, on maps with one tile a cell and several: what survives is
+    // exactly what a pass over the whole pool would keep
+    @Test
+    void shrinkMatchesAFullPassOverThePool() {
+        for (Zone.Shape shape : Zone.Shape.values()) {
+            for (int mapSize : new int[] {40, 700}) {
+                Zone zone = zone(shape, mapSize);
+                int capacity = 3000;
+                WorldLoot loot = new WorldLoot(mapSize, capacity);
+                RandomSource rnd = new RandomSource(mapSize, 3);
+                while (!zone.isFinal()) {
+                    for (int n = 0; n < 200 && !loot.isFull(); n++) {
+                        int x = rnd.nextInt(mapSize), y = rnd.nextInt(mapSize);
+                        if (zone.allows(zone.getStep(), x, y)) loot.place(rnd.nextInt(3), 2, x, y);
+                    }
+                    zone.shrink();
+                    int kept = 0;
+                    for (int i = 0; i < capacity; i++) {
+                        if (loot.level(i) != 0 && zone.allows(zone.getStep(), loot.x(i), loot.y(i))) kept++;
+                    }
+                    loot.removeLost(zone);
+                    String at = shape + " on " + mapSize + ", step " + zone.getStep();
+                    assertEquals(kept, loot.size(), at);
+                    for (int i = 0; i < capacity; i++) {
+                        if (loot.level(i) != 0) assertTrue(zone.allows(zone.getStep(), loot.x(i), loot.y(i)), at);
+                    }
+                }
+                assertFalse(loot.size() == 0, shape + " on " + mapSize + ": nothing left to check");
+            }
+        }
+    }
+}
\ No newline at end of file
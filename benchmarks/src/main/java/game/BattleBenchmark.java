@@ -0,0 +1,45 @@
+package game;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// GameEngine.resolveBattle between pairs spread over the whole roster
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BattleBenchmark {
+    @Param({"100", "1000", "10000"})
+    int players;
+
+    private GameEngine engine;
+    private int next;
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        engine = Matches.create(players, 1000);
+        next = 0;
+    }
+
+    @Benchmark
+    public void resolveBattle() {
+        int a = next++ % players;
+        int b = (a * 31 + 7) % players;
+        if (a == b) b = (b + 1) % players;
+        engine.resolveBattle(engine.getPlayerAtSlot(a), engine.getPlayerAtSlot(b));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,58 @@
+package game;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+// A batch of small lobbies played side by side on a MatchHost; divide by the batch size (and
+// the cores) for the cost of a match
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HostBenchmark {
+    @Param({"1000"})
+    int matches;
+
+    @Param({"8"})
+    int players;
+
+    @Param({"1", "3"})
+    int difficulty;
+
+    private MatchHost host;
+    private GameConfig config;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        host = new MatchHost();
+        config = Matches.config(players, GameConfig.DEFAULT_MAP_SIZE).setDifficulty(difficulty);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        host.close();
+    }
+
+    @Benchmark
+    public void batch() {
+        CompletableFuture<?>[] running = new CompletableFuture<?>[matches];
+        for (int i = 0; i < matches; i++) running[i] = host.submit(config);
+        CompletableFuture.allOf(running).join();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,55 @@
+package game;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// World loot: the AI's nearest-item query, and a pickup and drop cycle through the item pool
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LootBenchmark {
+    @Param({"100", "10000"})
+    int items;
+
+    @Param({"100", "1000"})
+    int mapSize;
+
+    private WorldLoot loot;
+    private RandomSource rnd;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        rnd = new RandomSource(Matches.SEED, 1);
+        loot = new WorldLoot(mapSize, items);
+        while (!loot.isFull()) loot.place(rnd.nextInt(3), rnd.nextInt(4) + 2, rnd.nextInt(mapSize), rnd.nextInt(mapSize));
+    }
+
+    @Benchmark
+    public int nearest() {
+        return loot.nearest(rnd.nextInt(mapSize), rnd.nextInt(mapSize), MoveStrategy.Field.LOOT_RADIUS, 3);
+    }
+
+    // An item taken away and another put down, as loot that expires and respawns
+    @Benchmark
+    public int respawn() {
+        int x = rnd.nextInt(mapSize), y = rnd.nextInt(mapSize);
+        int item = loot.nearest(x, y, 2 * mapSize, 1);
+        loot.remove(item);
+        return loot.place(loot.tool(item), 2, x, y);
+    }
+}
\ No newline at end of file
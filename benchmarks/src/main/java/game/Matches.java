@@ -0,0 +1,24 @@
+package game;
+
+// Builds seeded, silent matches for the benchmarks. The benchmarks live in package 'game'
+// so they can reach the engine's package-private hot paths directly.
+
+final class Matches {
+    static final long SEED = 42;
+
+    private Matches() {}
+
+    static GameConfig config(int players, int mapSize) {
+        return new GameConfig().setNumAI(players).setMapSize(mapSize).setSeed(SEED);
+    }
+
+    static GameEngine create(int players, int mapSize) {
+        return create(config(players, mapSize));
+    }
+
+    static GameEngine create(GameConfig config) {
+        GameEngine engine = new GameEngine(GameOutput.NONE);
+        engine.setupGame(config);
+        return engine;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,58 @@
+package game;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Per-turn costs: the AI move decision and the encounter lookup that follows every move
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MovementBenchmark {
+    @Param({"100", "1000", "10000"})
+    int players;
+
+    @Param({"100", "1000"})
+    int mapSize;
+
+    // 1 reads only the zone layer of the influence map, 2 adds threat, 3 runs the tree search
+    @Param({"1", "2", "3"})
+    int difficulty;
+
+    private GameEngine engine;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        engine = Matches.create(Matches.config(players, mapSize).setDifficulty(difficulty));
+    }
+
+    private Player nextPlayer() {
+        if (++next == players) next = 0;
+        return engine.getPlayerAtSlot(next);
+    }
+
+    @Benchmark
+    public int aiMove() {
+        return engine.aiMove(nextPlayer());
+    }
+
+    @Benchmark
+    public Player encounterLookup() {
+        return engine.opponentAt(nextPlayer());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,72 @@
+package game;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+// A round of a crowded match played by regions (GameConfig.setRegionSize) on a pool of `threads`
+// workers. Compare thread counts for the scaling; regionSize 0 is the classic sequential round.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RegionRoundBenchmark {
+    @Param({"100000"})
+    int players;
+
+    @Param({"2000"})
+    int mapSize;
+
+    @Param({"0", "256"})
+    int regionSize;
+
+    @Param({"1", "4"})
+    int threads;
+
+    private ForkJoinPool pool;
+    private GameEngine engine;
+
+    @Setup(Level.Trial)
+    public void startPool() {
+        pool = new ForkJoinPool(threads);
+    }
+
+    @TearDown(Level.Trial)
+    public void stopPool() {
+        pool.shutdown();
+    }
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        engine = create();
+    }
+
+    private GameEngine create() {
+        GameEngine e = new GameEngine(GameOutput.NONE);
+        e.setTickPool(pool);
+        e.setupGame(Matches.config(players, mapSize).setRegionSize(regionSize));
+        return e;
+    }
+
+    @Benchmark
+    public int regionRound() {
+        if (engine.getAliveCount() <= 1) engine = create();
+        engine.playRound();
+        return engine.getAliveCount();
+    }
+}
\ No newline at end of file
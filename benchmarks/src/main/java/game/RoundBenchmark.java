@@ -0,0 +1,46 @@
+package game;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// A full headless round. When a match ends mid-iteration a new one is built inside the measured call, which
+// slightly inflates the round time for small rosters.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RoundBenchmark {
+    @Param({"100", "1000", "10000"})
+    int players;
+
+    @Param({"100", "1000"})
+    int mapSize;
+
+    private GameEngine engine;
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        engine = Matches.create(players, mapSize);
+    }
+
+    @Benchmark
+    public int headlessRound() {
+        if (engine.getAliveCount() <= 1) engine = Matches.create(players, mapSize);
+        engine.playRound();
+        return engine.getAliveCount();
+    }
+}
\ No newline at end of file
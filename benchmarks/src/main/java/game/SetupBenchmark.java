@@ -0,0 +1,52 @@
+package game;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// One-shot operations that change the match, so each call gets a freshly prepared engine
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SetupBenchmark {
+    @Param({"100", "1000", "10000"})
+    int players;
+
+    @Param({"100", "1000"})
+    int mapSize;
+
+    private GameEngine unplaced;
+    private GameEngine placed;
+
+    @Setup(Level.Invocation)
+    public void setup() {
+        unplaced = new GameEngine(GameOutput.NONE);
+        unplaced.createPlayers(Matches.config(players, mapSize));
+        placed = Matches.create(players, mapSize);
+    }
+
+    @Benchmark
+    public void placePlayers() {
+        unplaced.placePlayers();
+    }
+
+    @Benchmark
+    public int shrinkMap() {
+        placed.shrinkMap();
+        return placed.getAliveCount();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,68 @@
+package game;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Snapshot cost of a match a few rounds in: encoding alone, a checkpoint to disk, and a restore
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SnapshotBenchmark {
+    @Param({"1000", "100000"})
+    int players;
+
+    @Param({"2000"})
+    int mapSize;
+
+    private GameEngine engine;
+    private final MatchSnapshot snapshot = new MatchSnapshot();
+    private Path file;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        engine = Matches.create(players, mapSize);
+        for (int i = 0; i < 3; i++) engine.playRound();
+        file = Files.createTempFile("snapshot", ".bin");
+        snapshot.save(engine, file);
+    }
+
+    @TearDown(Level.Trial)
+    public void cleanup() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public ByteBuffer encode() {
+        return snapshot.encode(engine);
+    }
+
+    @Benchmark
+    public void save() throws IOException {
+        snapshot.save(engine, file);
+    }
+
+    @Benchmark
+    public GameEngine load() throws IOException {
+        return MatchSnapshot.load(file);
+    }
+}
\ No newline at end of file